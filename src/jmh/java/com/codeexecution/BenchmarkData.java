@@ -0,0 +1,72 @@
+package com.codeexecution;
+
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, so results are
+ * comparable between runs and commits.
+ */
+public final class BenchmarkData {
+    public static final String SOURCE_CODE = """
+            import java.util.Scanner;
+
+            public class Main {
+                public static void main(String[] args) {
+                    Scanner in = new Scanner(System.in);
+                    long sum = 0;
+                    while (in.hasNextLong()) {
+                        sum += in.nextLong();
+                    }
+                    System.out.println(sum);
+                }
+            }
+            """;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Whitespace separated numbers, roughly {@code size} characters long.
+     */
+    public static String input(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder(size + 16);
+        while (builder.length() < size) {
+            builder.append(random.nextInt(1_000_000)).append(random.nextInt(10) == 0 ? '\n' : ' ');
+        }
+        return builder.toString();
+    }
+
+    public static List<TestCase> testCases(int count, int inputSize) {
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            testCases.add(new TestCase(input(inputSize, i), String.valueOf(i)));
+        }
+        return testCases;
+    }
+
+    /**
+     * Finished results for the given test cases; every tenth one failed.
+     */
+    public static List<TestCaseResult> testCaseResults(List<TestCase> testCases) {
+        List<TestCaseResult> results = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            TestCase testCase = testCases.get(i);
+            boolean passed = i % 10 != 0;
+
+            SubmissionResult result = new SubmissionResult();
+            result.setStdout(passed ? testCase.getExpectedOutput() : "wrong");
+            result.setTime(0.05);
+            result.setMemory(16384.0);
+            result.setStatus(new SubmissionResult.Status(passed ? 3 : 4, passed ? "Accepted" : "Wrong Answer"));
+            results.add(new TestCaseResult(testCase, result, passed));
+        }
+        return results;
+    }
+}
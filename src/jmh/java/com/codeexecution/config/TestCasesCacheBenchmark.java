@@ -0,0 +1,65 @@
+package com.codeexecution.config;
+
+import com.codeexecution.BenchmarkData;
+import com.codeexecution.model.TestCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the Caffeine backed {@code testCases} cache through the
+ * Spring {@link Cache} API, the same path {@code TestCaseCacheService} takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TestCasesCacheBenchmark {
+    private static final int PROBLEM_COUNT = 100;
+
+    @Param({"10", "100"})
+    private int testCaseCount;
+
+    @Param({"64", "4096"})
+    private int inputSize;
+
+    private Cache cache;
+    private List<TestCase> testCases;
+
+    @Setup
+    public void setUp() {
+        CacheConfig cacheConfig = new CacheConfig();
+        cache = cacheConfig.cacheManager(cacheConfig.caffeineConfig(new TestCaseCacheProperties())).getCache(CacheConfig.TEST_CASES_CACHE);
+        testCases = BenchmarkData.testCases(testCaseCount, inputSize);
+        for (int i = 0; i < PROBLEM_COUNT; i++) {
+            cache.put("problem-" + i, testCases);
+        }
+    }
+
+    @Benchmark
+    public Cache.ValueWrapper hit() {
+        return cache.get("problem-" + ThreadLocalRandom.current().nextInt(PROBLEM_COUNT));
+    }
+
+    @Benchmark
+    public List<TestCase> getOrLoad() {
+        return cache.get("problem-" + ThreadLocalRandom.current().nextInt(PROBLEM_COUNT * 2), () -> testCases);
+    }
+}
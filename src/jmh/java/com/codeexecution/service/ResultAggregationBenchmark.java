@@ -0,0 +1,61 @@
+package com.codeexecution.service;
+
+import com.codeexecution.BenchmarkData;
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting test cases into Judge0 batches and folding per-test-case
+ * results into an {@link ExecutionResult}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultAggregationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int testCaseCount;
+
+    @Param({"64", "4096"})
+    private int inputSize;
+
+    @Param({"5", "20"})
+    private int batchSize;
+
+    private List<TestCase> testCases;
+    private List<TestCaseResult> results;
+
+    @Setup
+    public void setUp() {
+        testCases = BenchmarkData.testCases(testCaseCount, inputSize);
+        results = BenchmarkData.testCaseResults(testCases);
+    }
+
+    @Benchmark
+    public List<List<TestCase>> partitionList() {
+        return CodeExecutionService.partitionList(testCases, batchSize);
+    }
+
+    @Benchmark
+    public ExecutionResult aggregateResults() {
+        return CodeExecutionService.aggregateResults(results);
+    }
+}
@@ -0,0 +1,68 @@
+package com.codeexecution.service;
+
+import com.codeexecution.BenchmarkData;
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.SubmissionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON encoding of a POST /submissions/batch body, as streamed by
+ * {@link Judge0Service#submitBatch}, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmissionSerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int testCaseCount;
+
+    @Param({"64", "4096", "65536"})
+    private int inputSize;
+
+    private Judge0Service judge0Service;
+    private List<SubmissionRequest> requests;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() {
+        judge0Service = new Judge0Service(null, new Judge0Properties(), new ObjectMapper(), null);
+        requests = BenchmarkData.testCases(testCaseCount, inputSize).stream()
+                .map(testCase -> CodeExecutionService.createSubmissionRequest(BenchmarkData.SOURCE_CODE, testCase))
+                .toList();
+    }
+
+    @Benchmark
+    public int writeBatch() throws IOException {
+        out.reset();
+        judge0Service.writeBatch(requests, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeBatchGzip() throws IOException {
+        out.reset();
+        judge0Service.writeBatch(requests, new GZIPOutputStream(out));
+        return out.size();
+    }
+}
@@ -0,0 +1,84 @@
+package com.codeexecution.service;
+
+import com.codeexecution.BenchmarkData;
+import com.codeexecution.model.TestCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a problem's input/ and output/ directories, eagerly onto the heap
+ * as a baseline and through {@link TestCaseLoaderService}'s memory-mapped
+ * pack. Files are generated in a temporary directory laid out like
+ * problems/&lt;id&gt;.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseLoadingBenchmark {
+    private static final String PROBLEM_ID = "benchmark";
+
+    @Param({"10", "100", "1000"})
+    private int testCaseCount;
+
+    @Param({"64", "4096", "65536"})
+    private int inputSize;
+
+    private final TestCaseLoaderService loader = new TestCaseLoaderService();
+    private Path problemDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        problemDir = Files.createTempDirectory("problems-" + PROBLEM_ID);
+        Path inputDir = Files.createDirectories(problemDir.resolve("input"));
+        Path outputDir = Files.createDirectories(problemDir.resolve("output"));
+
+        List<TestCase> testCases = BenchmarkData.testCases(testCaseCount, inputSize);
+        for (int i = 0; i < testCases.size(); i++) {
+            String suffix = String.format("%04d.txt", i);
+            Files.writeString(inputDir.resolve("input" + suffix), testCases.get(i).getInput());
+            Files.writeString(outputDir.resolve("output" + suffix), testCases.get(i).getExpectedOutput());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(problemDir);
+    }
+
+    // Baseline: every file read onto the heap up front, as test cases were loaded before the pack
+    @Benchmark
+    public List<TestCase> loadTestCasesFromDirectory() throws IOException {
+        List<TestCase> testCases = new ArrayList<>();
+        for (Path[] pair : loader.listTestCaseFiles(PROBLEM_ID, problemDir)) {
+            testCases.add(new TestCase(Files.readString(pair[0]), Files.readString(pair[1])));
+        }
+        return testCases;
+    }
+
+    // Pack is built during warm-up, so this measures opening the mapped pack
+    @Benchmark
+    public List<TestCase> loadTestCasesFromPack() {
+        return loader.loadTestCases(PROBLEM_ID, problemDir);
+    }
+}
@@ -0,0 +1,26 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "admission")
+@Getter @Setter
+public class AdmissionProperties {
+
+    // Reject requests whose estimated completion is past their deadline
+    private boolean enabled = true;
+
+    // Deadline for requests without an X-Deadline-Ms header
+    @Min(1)
+    private long defaultDeadlineMs = 60000;
+
+    // Client deadlines are capped at this
+    @Min(1)
+    private long maxDeadlineMs = 300000;
+}
@@ -1,27 +1,64 @@
 package com.codeexecution.config;
 
+import com.codeexecution.service.MetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
+@Slf4j
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig implements AsyncConfigurer {
 
+    private static final String THREAD_NAME_PREFIX = "Judge0Async-";
+
+    private final AsyncExecutorProperties properties;
+    private final ObjectProvider<MetricsService> metricsService;
+
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        MetricsService metrics = metricsService.getObject();
+        String mode = properties.getMode().name().toLowerCase();
+        TaskDecorator queueWaitRecorder = task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                metrics.recordExecutorQueueWait(mode, System.nanoTime() - submittedAt);
+                task.run();
+            };
+        };
+
+        log.info("Using {} task executor", mode);
+        if (properties.getMode() == AsyncExecutorProperties.Mode.VIRTUAL) {
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor(
+                    THREAD_NAME_PREFIX, properties.getMaxConcurrency(), queueWaitRecorder);
+            metrics.registerExecutorGauges(mode, executor::getActiveCount, executor::getWaitingCount);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
-        executor.setMaxPoolSize(50);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Judge0Async-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        executor.setTaskDecorator(queueWaitRecorder);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            metrics.recordExecutorRejection(mode);
+            new ThreadPoolExecutor.AbortPolicy().rejectedExecution(task, pool);
+        });
         executor.initialize();
+        metrics.registerExecutorGauges(mode, executor::getActiveCount, executor::getQueueSize);
         return executor;
     }
 
@@ -29,4 +66,4 @@ public class AsyncConfig implements AsyncConfigurer {
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new CustomAsyncExceptionHandler();
     }
-}
\ No newline at end of file
+}
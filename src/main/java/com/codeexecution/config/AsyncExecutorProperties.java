@@ -0,0 +1,38 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "async")
+@Getter @Setter
+public class AsyncExecutorProperties {
+
+    public enum Mode {
+        PLATFORM,  // Bounded ThreadPoolTaskExecutor with a task queue
+        VIRTUAL    // One virtual thread per task, bounded by a semaphore
+    }
+
+    @NotNull
+    private Mode mode = Mode.PLATFORM;
+
+    // Platform thread pool settings
+    @Min(1)
+    private int corePoolSize = 10;
+
+    @Min(1)
+    private int maxPoolSize = 50;
+
+    @Min(0)
+    private int queueCapacity = 100;
+
+    // Virtual thread settings: tasks beyond this limit wait for a permit instead of being rejected
+    @Min(1)
+    private int maxConcurrency = 1000;
+}
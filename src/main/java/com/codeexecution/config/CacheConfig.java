@@ -1,5 +1,10 @@
 package com.codeexecution.config;
 
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+import com.codeexecution.service.MetricsService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -7,19 +12,30 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
     public static final String TEST_CASES_CACHE = "testCases";
+    public static final String VERDICTS_CACHE = "verdicts";
+
+    // Verdicts are bounded by approximate retained bytes; the per-entry floor also caps the entry count
+    private static final long VERDICTS_MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+    private static final int VERDICT_MIN_WEIGHT_BYTES = 1024;
+    private static final int TEST_CASE_MIN_WEIGHT_BYTES = 64;
     
+    /**
+     * Test case lists per problem, bounded by the bytes of test data they
+     * hold rather than by problem count. There is no expiry: entries are
+     * invalidated when the problem's files change.
+     */
     @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
+    public Caffeine<Object, Object> caffeineConfig(TestCaseCacheProperties properties) {
         return Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(500)
-                .expireAfterWrite(1, TimeUnit.HOURS)
+                .maximumWeight(properties.getMaxWeightBytes())
+                .weigher((Object key, Object value) -> value instanceof List<?> testCases ? weigh(testCases) : 1)
                 .recordStats();
     }
     
@@ -29,4 +45,51 @@ public class CacheConfig {
         cacheManager.setCaffeine(caffeine);
         return cacheManager;
     }
+
+    /**
+     * Final verdicts keyed by a hash of problem, normalized source, language
+     * and test-set version. Async so identical concurrent submissions share
+     * one in-flight execution.
+     */
+    @Bean
+    public AsyncCache<String, ExecutionResult> verdictCache(MetricsService metricsService) {
+        AsyncCache<String, ExecutionResult> cache = Caffeine.newBuilder()
+                .maximumWeight(VERDICTS_MAX_WEIGHT_BYTES)
+                .weigher((String key, ExecutionResult result) -> Math.max(VERDICT_MIN_WEIGHT_BYTES, estimateSize(result)))
+                .expireAfterAccess(6, TimeUnit.HOURS)
+                .recordStats()
+                .buildAsync();
+        metricsService.monitorCache(VERDICTS_CACHE, cache);
+        return cache;
+    }
+
+    // Test cases are shared with the testCases cache, or are slices and file references, so only the output counts
+    private static int estimateSize(ExecutionResult result) {
+        long size = 0;
+        for (TestCaseResult testCaseResult : result.getTestCaseResults()) {
+            size += 256; // Object headers, status and timings
+            if (testCaseResult.getExecutionResult() != null) {
+                size += length(testCaseResult.getExecutionResult().getStdout());
+                size += length(testCaseResult.getExecutionResult().getStderr());
+                size += length(testCaseResult.getExecutionResult().getCompileOutput());
+                size += length(testCaseResult.getExecutionResult().getMessage());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static int weigh(List<?> testCases) {
+        long size = 0;
+        for (Object element : testCases) {
+            size += TEST_CASE_MIN_WEIGHT_BYTES;
+            if (element instanceof TestCase testCase) {
+                size += testCase.inputSize() + testCase.expectedOutputSize();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
 }
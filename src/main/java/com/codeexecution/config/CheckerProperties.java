@@ -0,0 +1,51 @@
+package com.codeexecution.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "checker")
+@Getter @Setter
+public class CheckerProperties {
+
+    public enum Mode {
+        EXACT,   // Identical apart from leading and trailing whitespace, like Judge0's expected_output check
+        TOKENS,  // Same whitespace-separated tokens
+        FLOAT,   // Same tokens, numbers within epsilon
+        CUSTOM   // A per-problem OutputChecker class
+    }
+
+    // Judge outputs here instead of sending expected_output to Judge0
+    private boolean local = true;
+
+    @NotNull
+    private Mode defaultMode = Mode.TOKENS;
+
+    // Largest absolute or relative error FLOAT accepts
+    @DecimalMin("0.0")
+    private double epsilon = 1e-6;
+
+    // Overrides keyed by problem id
+    private Map<String, @Valid Problem> problems = new HashMap<>();
+
+    @Getter @Setter
+    public static class Problem {
+        private Mode mode;
+
+        @DecimalMin("0.0")
+        private Double epsilon;
+
+        // Fully qualified OutputChecker implementation, for mode CUSTOM
+        private String checkerClass;
+    }
+}
@@ -0,0 +1,63 @@
+package com.codeexecution.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+import java.util.Set;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "execution")
+@Getter @Setter
+public class ExecutionBackendProperties {
+
+    public enum Backend {
+        JUDGE0,  // Sandboxed execution on the Judge0 server
+        LOCAL    // In-process compilation and pooled child JVMs; trusted code only
+    }
+
+    @NotNull
+    private Backend backend = Backend.JUDGE0;
+
+    // Problems that always run on the local backend, e.g. for reference-solution validation
+    private Set<String> localProblems = Set.of();
+
+    @Valid
+    private Local local = new Local();
+
+    public boolean isLocalUsed() {
+        return backend == Backend.LOCAL || !localProblems.isEmpty();
+    }
+
+    @Getter @Setter
+    public static class Local {
+        // Number of warm child JVMs, which is also the number of test cases run at once
+        @Min(1)
+        private int poolSize = 2;
+
+        // Heap limit of each child JVM
+        @Min(16)
+        private int memoryLimitMb = 256;
+
+        // Used when a request carries no cpu_time_limit
+        @DecimalMin("0.1")
+        private double cpuTimeLimit = 5.0;
+
+        // Child JVMs are replaced after this many runs to shed anything a program left behind
+        @Min(1)
+        private int runsPerWorker = 200;
+
+        // Defaults to the JVM running this application
+        private String javaCommand;
+
+        private List<String> jvmOptions = List.of("-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1", "-Xss64m");
+    }
+}
@@ -0,0 +1,30 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "history")
+@Getter @Setter
+public class HistoryProperties {
+
+    // Record every judged submission
+    private boolean enabled = true;
+
+    // Submissions waiting to be written; beyond this new ones are dropped rather than slowing verdicts down
+    @Min(1)
+    private int bufferCapacity = 10000;
+
+    // Submissions written per transaction
+    @Min(1)
+    private int batchSize = 200;
+
+    // Longest a submission waits in the buffer when traffic is light
+    @Min(1)
+    private long flushIntervalMs = 250;
+}
@@ -0,0 +1,53 @@
+package com.codeexecution.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Non-blocking HTTP client used for all Judge0 calls. In-flight requests are
+ * bounded by the connection pool rather than by executor threads.
+ */
+@Configuration
+public class Judge0HttpClientConfig {
+
+    private final Judge0Properties judge0Properties;
+
+    public Judge0HttpClientConfig(Judge0Properties judge0Properties) {
+        this.judge0Properties = judge0Properties;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient judge0HttpClient(@Value("${rest.max-total:100}") int maxTotal,
+                                                     @Value("${rest.max-per-route:20}") int maxPerRoute) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(judge0Properties.getConnectionTimeout()))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(judge0Properties.getReadTimeout()))
+                .build();
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(judge0Properties.getReadTimeout()))
+                        .build())
+                .build();
+        client.start();
+        return client;
+    }
+}
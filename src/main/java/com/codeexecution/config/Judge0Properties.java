@@ -7,6 +7,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
 @Validated
 @Configuration
 @ConfigurationProperties(prefix = "judge0")
@@ -16,7 +19,13 @@ public class Judge0Properties {
     @NotBlank
     private String baseUrl = "http://localhost:2358";
 
-    private boolean base64Encoded = false;
+    private boolean base64Encoded = false;  // Send and receive source, stdin and output fields base64 encoded
+
+    // Gzip POST bodies; only for a Judge0 behind a proxy that inflates requests, Judge0 itself does not
+    private boolean gzipRequests = false;
+
+    // Ask for gzipped responses, which a compressing proxy in front of Judge0 honors
+    private boolean gzipResponses = true;
     
     private boolean wait = true;  // Whether to wait for execution to complete
 
@@ -35,10 +44,79 @@ public class Judge0Properties {
     @Min(10)
     @Max(200)
     private int maxPollingAttempts = 60;  // Increased default max attempts
+
+    // Learn poll delays per problem from Judge0's timings instead of polling every pollingIntervalMs
+    private boolean adaptivePolling = true;
+
+    @Min(10)
+    private int minPollDelayMs = 100;
+
+    @Min(100)
+    private int maxPollDelayMs = 5000;
+
+    @DecimalMin("1.0")
+    @DecimalMax("4.0")
+    private double pollBackoffMultiplier = 1.5;  // Growth of the delay while tokens are "In Queue"
+
+    @DecimalMin("0.0")
+    @DecimalMax("0.5")
+    private double pollJitter = 0.2;  // Each delay is randomized by up to this fraction
+
+    @Min(1)
+    @Max(20)
+    private int batchSize = 5;  // Initial batch size for submissions, adapted at runtime
     
+    // Bounds for the adaptive batch controller
     @Min(1)
     @Max(20)
-    private int batchSize = 5;  // Default batch size for submissions
+    private int minBatchSize = 1;
+
+    @Min(1)
+    @Max(20)
+    private int maxBatchSize = 20;
+
+    @Min(1)
+    @Max(64)
+    private int batchConcurrency = 2;  // Initial number of batches submitted in parallel per submission
+
+    @Min(1)
+    @Max(64)
+    private int maxBatchConcurrency = 8;
+
+    @Min(100)
+    private int batchLatencyTargetMs = 2000;  // Back off when submitBatch gets slower than this
+    
+    // Let Judge0 PUT results to our callback endpoint; polling becomes a timeout fallback
+    private boolean callbackEnabled = false;
+
+    // URL of Judge0CallbackController as reachable from Judge0
+    private String callbackUrl;
+
+    // Added to callback_url and checked on every callback. Random per process unless set; instances
+    // behind one callback URL need the same value
+    @NotBlank
+    private String callbackSecret = randomSecret();
+
+    @Min(1000)
+    private int callbackTimeoutMs = 10000;  // Start polling if no callback arrived by then
+    
+    // Compile each submission once and run many test cases in one multi-file harness run
+    private boolean compileOnce = false;
+
+    @Min(1)
+    @Max(500)
+    private int harnessCasesPerRun = 50;
+
+    @DecimalMin("1.0")
+    @DecimalMax("30.0")
+    private double harnessMaxCpuTimeLimit = 15.0;  // Judge0's default max_cpu_time_limit
+
+    // JDK inside the Judge0 sandbox used by the harness compile/run scripts
+    @NotBlank
+    private String harnessJavac = "/usr/local/openjdk13/bin/javac";
+
+    @NotBlank
+    private String harnessJava = "/usr/local/openjdk13/bin/java";
     
     // Timeout settings in milliseconds
     @Min(1000)
@@ -46,4 +124,11 @@ public class Judge0Properties {
     
     @Min(5000)
     private int readTimeout = 30000;
-}
\ No newline at end of file
+
+    // nextBytes rather than generateSeed, which reads the seed source and can block at startup
+    private static String randomSecret() {
+        byte[] secret = new byte[16];
+        new SecureRandom().nextBytes(secret);
+        return HexFormat.of().formatHex(secret);
+    }
+}
@@ -0,0 +1,25 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "metrics.problems")
+@Getter @Setter
+public class ProblemMetricsProperties {
+
+    // Problems that always get their own problem_id tag
+    private Set<String> tagged = new HashSet<>();
+
+    // Further problems tagged as they are first seen; the rest are reported as "other"
+    @Min(0)
+    private int maxTagged = 50;
+}
@@ -0,0 +1,33 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "rejudge")
+@Getter @Setter
+public class RejudgeProperties {
+
+    // Where jobs and their verdicts are checkpointed
+    private String checkpointDir = "rejudge-jobs";
+
+    // Submissions handed to the backend as one stream of test cases
+    @Min(1)
+    private int windowSubmissions = 8;
+
+    // Submissions of one job accepted but not yet judged; bounds the results held in memory
+    @Min(1)
+    private int maxOpenSubmissions = 32;
+
+    // How long completed and cancelled jobs stay listed before they are forgotten
+    @Min(0)
+    private long finishedRetentionMs = 3600000;
+
+    // Pick up unfinished jobs from their checkpoints at startup
+    private boolean resumeOnStartup = true;
+}
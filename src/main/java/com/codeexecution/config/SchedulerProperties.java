@@ -0,0 +1,69 @@
+package com.codeexecution.config;
+
+import com.codeexecution.model.ExecutionContext;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "scheduler")
+@Getter @Setter
+public class SchedulerProperties {
+
+    // Judge0 batch submissions in flight across all executions
+    @Min(1)
+    private int maxInFlightBatches = 16;
+
+    // Share of those slots rejudges may hold, so interactive runs and submissions always find one
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double rejudgeMaxShare = 0.5;
+
+    // Relative share of submission capacity per priority class, for each tenant
+    private Map<ExecutionContext.Priority, Integer> priorityWeights = new EnumMap<>(Map.of(
+            ExecutionContext.Priority.INTERACTIVE, 8,
+            ExecutionContext.Priority.SUBMIT, 4,
+            ExecutionContext.Priority.REJUDGE, 1));
+
+    // Tenants that get more (or less) than the default weight of 1
+    private Map<String, Integer> tenantWeights = new HashMap<>();
+
+    // Highest priority a request to the public API gets. Callers are not authenticated, so interactive
+    // is only honored when set here, e.g. behind a gateway that decides who may ask for it
+    @NotNull
+    private ExecutionContext.Priority maxClientPriority = ExecutionContext.Priority.SUBMIT;
+
+    public int getRejudgeMaxInFlight() {
+        return Math.max(1, (int) (maxInFlightBatches * rejudgeMaxShare));
+    }
+
+    /**
+     * The priority a public API request runs at: rejudge is refused, and
+     * anything above {@code maxClientPriority} is lowered to it.
+     */
+    public ExecutionContext.Priority clientPriority(ExecutionContext.Priority requested) {
+        if (requested == ExecutionContext.Priority.REJUDGE) {
+            throw new IllegalArgumentException("Priority rejudge is reserved for /api/rejudge");
+        }
+        ExecutionContext.Priority priority = requested == null ? ExecutionContext.Priority.SUBMIT : requested;
+        // Declared from most to least urgent
+        return priority.compareTo(maxClientPriority) < 0 ? maxClientPriority : priority;
+    }
+
+    public int weightOf(ExecutionContext context) {
+        int priorityWeight = priorityWeights.getOrDefault(context.priority(), 1);
+        int tenantWeight = tenantWeights.getOrDefault(context.tenant(), 1);
+        return Math.max(1, priorityWeight * tenantWeight);
+    }
+}
@@ -0,0 +1,30 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "test-cases.cache")
+@Getter @Setter
+public class TestCaseCacheProperties {
+
+    // Upper bound on the input and expected-output bytes of all cached problems
+    @Min(1)
+    private long maxWeightMb = 256;
+
+    // Invalidate problems when their files under problems/ change
+    private boolean watch = true;
+
+    // Changed problems are reloaded once their files have been quiet this long
+    @Min(0)
+    private long reloadQuietPeriodMs = 500;
+
+    public long getMaxWeightBytes() {
+        return maxWeightMb * 1024 * 1024;
+    }
+}
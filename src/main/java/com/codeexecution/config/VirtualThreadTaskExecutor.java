@@ -0,0 +1,60 @@
+package com.codeexecution.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every task on its own virtual thread. A semaphore caps how many tasks
+ * run at once; tasks over the limit park cheaply until a permit frees up,
+ * so bursts are absorbed instead of rejected.
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor {
+
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+    private final TaskDecorator taskDecorator;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency, TaskDecorator taskDecorator) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Runnable decorated = taskDecorator != null ? taskDecorator.decorate(task) : task;
+        threadFactory.newThread(() -> {
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                waiting.decrementAndGet();
+            }
+
+            active.incrementAndGet();
+            try {
+                decorated.run();
+            } finally {
+                active.decrementAndGet();
+                permits.release();
+            }
+        }).start();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+}
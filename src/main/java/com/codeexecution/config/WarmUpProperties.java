@@ -0,0 +1,30 @@
+package com.codeexecution.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "warm-up")
+@Getter @Setter
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+
+    // Problems whose test cases are preloaded; empty means every problem under problems/
+    private List<String> problems = List.of();
+
+    // Connections opened to Judge0 ahead of the first submission; 0 skips Judge0
+    @Min(0)
+    private int judge0Connections = 4;
+
+    // Upper bound on the whole warm-up, so a slow Judge0 cannot hold back readiness indefinitely
+    @Min(1)
+    private long timeoutMs = 30000;
+}
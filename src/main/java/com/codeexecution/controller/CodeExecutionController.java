@@ -1,29 +1,45 @@
 package com.codeexecution.controller;
 
+import com.codeexecution.config.SchedulerProperties;
 import com.codeexecution.model.CodeExecutionRequest;
+import com.codeexecution.model.ExecutionContext;
 import com.codeexecution.model.ExecutionResult;
 import com.codeexecution.model.TestCase;
+import com.codeexecution.exception.DeadlineExceededException;
+import com.codeexecution.service.AdmissionService;
 import com.codeexecution.service.CodeExecutionService;
 import com.codeexecution.service.MetricsService;
-import com.codeexecution.service.TestCaseLoaderService;
+import com.codeexecution.service.TestCaseCacheService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/code")
 @RequiredArgsConstructor
 public class CodeExecutionController {
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+    // Identifies the caller for fair scheduling; missing means the shared anonymous tenant.
+    // Taken as given: only a gateway in front of this service can stop clients from picking their own
+    static final String TENANT_HEADER = "X-Tenant-Id";
+    // Milliseconds the caller is prepared to wait; past it, work for the request is dropped
+    static final String DEADLINE_HEADER = "X-Deadline-Ms";
+
     private final CodeExecutionService executionService;
-    private final TestCaseLoaderService testCaseLoaderService;
+    private final TestCaseCacheService testCaseCacheService;
     private final MetricsService metricsService;
+    private final AdmissionService admissionService;
+    private final SchedulerProperties schedulerProperties;
 
 
     @PostMapping(value = "/execute/{problemId}", 
@@ -31,26 +47,94 @@ public class CodeExecutionController {
             produces = MediaType.APPLICATION_JSON_VALUE)
     public CompletableFuture<ResponseEntity<ExecutionResult>> executeCode(
             @PathVariable String problemId,
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenant,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs,
             @Valid @RequestBody CodeExecutionRequest request) {
         
         log.info("Received code execution request for problem: {}", problemId);
+        ExecutionContext context = admit(tenant, deadlineMs, request);
+        long startTime = System.currentTimeMillis();
         
-        return executionService.executeWithTestCases(problemId, request.getSourceCode())
+        return executionService.executeWithTestCases(problemId, request, context)
                 .thenApply(result -> {
                     log.info("Code execution completed for problem: {}, passed: {}/{}", 
                             problemId, result.getPassedCount(), result.getTotalCount());
+                    admissionService.recordExecution(System.currentTimeMillis() - startTime);
                     return ResponseEntity.ok(result);
                 })
                 .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof DeadlineExceededException deadlineExceeded) {
+                        log.warn("Deadline exceeded executing code for problem: {}", problemId);
+                        throw deadlineExceeded;
+                    }
                     log.error("Error executing code for problem: {}", problemId, ex);
                     throw new RuntimeException("Failed to execute code: " + ex.getMessage(), ex);
                 });
     }
 
+    /**
+     * Streaming variant of {@link #executeCode}, selected with
+     * {@code Accept: text/event-stream}. Emits a {@code test-case} event per
+     * finished test case (event id = test case index) followed by a single
+     * {@code result} event with the aggregate counts.
+     */
+    @PostMapping(value = "/execute/{problemId}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter executeCodeStreaming(
+            @PathVariable String problemId,
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenant,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs,
+            @Valid @RequestBody CodeExecutionRequest request) {
+
+        log.info("Received streaming code execution request for problem: {}", problemId);
+        ExecutionContext context = admit(tenant, deadlineMs, request);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        executionService.executeStreaming(problemId, request, context, (index, testCaseResult) -> {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(index))
+                                .name("test-case")
+                                .data(testCaseResult, MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        // Client went away; the remaining results are discarded
+                        log.debug("Failed to stream test case {} for problem: {}", index, problemId, e);
+                    }
+                })
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Error executing code for problem: {}", problemId, ex);
+                        emitter.completeWithError(ex);
+                        return;
+                    }
+                    log.info("Streaming code execution completed for problem: {}, passed: {}/{}",
+                            problemId, result.getPassedCount(), result.getTotalCount());
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name("result")
+                                .data(result, MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                    } catch (IOException e) {
+                        emitter.completeWithError(e);
+                    }
+                });
+
+        return emitter;
+    }
+
+    private ExecutionContext admit(String tenant, Long deadlineMs, CodeExecutionRequest request) {
+        ExecutionContext.Priority priority = schedulerProperties.clientPriority(request.getPriority());
+        ExecutionContext context = new ExecutionContext(tenant, priority, admissionService.deadlineFor(deadlineMs));
+        admissionService.admit(context);
+        return context;
+    }
+
     @GetMapping(value = "/test-cases/{problemId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<TestCase>> getTestCases(@PathVariable String problemId) {
         log.info("Retrieving test cases for problem: {}", problemId);
-        List<TestCase> testCases = testCaseLoaderService.loadTestCasesFromFiles(problemId);
+        List<TestCase> testCases = testCaseCacheService.getTestCases(problemId);
         return ResponseEntity.ok(testCases);
     }
 }
\ No newline at end of file
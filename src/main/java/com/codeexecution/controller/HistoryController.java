@@ -0,0 +1,47 @@
+package com.codeexecution.controller;
+
+import com.codeexecution.model.SubmissionHistoryEntry;
+import com.codeexecution.service.SubmissionHistoryService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Submission history, newest first. Writes are buffered, so a submission
+ * shows up here a moment after its verdict.
+ */
+@Validated
+@RestController
+@RequestMapping("/api/history")
+@RequiredArgsConstructor
+public class HistoryController {
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final SubmissionHistoryService historyService;
+
+    @GetMapping(value = "/problems/{problemId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Page<SubmissionHistoryEntry> getProblemHistory(
+            @PathVariable String problemId,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return historyService.getHistoryByProblem(problemId, page, size);
+    }
+
+    @GetMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Page<SubmissionHistoryEntry> getUserHistory(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return historyService.getHistoryByUser(userId, page, size);
+    }
+
+    @GetMapping(value = "/submissions/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SubmissionHistoryEntry> getSubmission(@PathVariable long id) {
+        return ResponseEntity.of(historyService.getSubmission(id));
+    }
+}
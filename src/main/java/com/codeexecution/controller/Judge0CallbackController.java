@@ -0,0 +1,71 @@
+package com.codeexecution.controller;
+
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.Base64Text;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.service.Judge0Service;
+import com.codeexecution.service.PendingSubmissionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives the PUT Judge0 sends to a submission's callback_url once it has finished.
+ * Callbacks must carry the {@code judge0.callback-secret} that was added to the URL.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/judge0")
+@RequiredArgsConstructor
+public class Judge0CallbackController {
+    private final PendingSubmissionRegistry pendingSubmissions;
+    private final Judge0Properties judge0Properties;
+    private final ObjectMapper objectMapper;
+
+    // Read raw: Judge0 base64 encodes callback bodies, which the regular request mapping would not decode
+    @PutMapping(value = "/callback", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> onSubmissionFinished(
+            @RequestParam(name = Judge0Service.CALLBACK_SECRET_PARAM, required = false) String secret,
+            @RequestBody byte[] body) {
+        // Anyone who can reach this endpoint could otherwise complete a token with a verdict of their choosing
+        if (!isAuthentic(secret)) {
+            log.warn("Rejected a Judge0 callback without a valid secret");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SubmissionResult result;
+        try {
+            result = readCallback(body);
+        } catch (IOException e) {
+            log.warn("Rejected an unreadable Judge0 callback: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        boolean completed = pendingSubmissions.complete(result);
+        log.debug("Judge0 callback for token {} (status {}), completed: {}",
+                result.getToken(), result.getStatus(), completed);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Parsed here rather than in Judge0Service, whose calls all draw on the outbound rate limit
+    private SubmissionResult readCallback(byte[] body) throws IOException {
+        return objectMapper.readerFor(SubmissionResult.class)
+                .withAttribute(Base64Text.ATTRIBUTE, true)
+                .readValue(body);
+    }
+
+    private boolean isAuthentic(String secret) {
+        return secret != null && MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                judge0Properties.getCallbackSecret().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.codeexecution.controller;
+
+import com.codeexecution.model.RejudgeProgress;
+import com.codeexecution.model.RejudgeRequest;
+import com.codeexecution.model.RejudgeVerdict;
+import com.codeexecution.service.RejudgeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/rejudge")
+@RequiredArgsConstructor
+public class RejudgeController {
+
+    private final RejudgeService rejudgeService;
+
+    /**
+     * Starts a background job that rejudges the given submissions; poll
+     * {@code /api/rejudge/{jobId}} for its progress.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RejudgeProgress> startRejudge(
+            @RequestHeader(value = CodeExecutionController.TENANT_HEADER, required = false) String tenant,
+            @Valid @RequestBody RejudgeRequest request) {
+        log.info("Received rejudge request for problem: {} with {} submissions",
+                request.getProblemId(), request.getSubmissions().size());
+        return ResponseEntity.accepted().body(rejudgeService.start(tenant, request));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RejudgeProgress> getJobs() {
+        return rejudgeService.getJobs();
+    }
+
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RejudgeProgress getProgress(@PathVariable String jobId) {
+        return rejudgeService.getProgress(jobId);
+    }
+
+    @GetMapping(value = "/{jobId}/verdicts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RejudgeVerdict> getVerdicts(@PathVariable String jobId) {
+        return rejudgeService.getVerdicts(jobId);
+    }
+
+    @PostMapping(value = "/{jobId}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RejudgeProgress resume(@PathVariable String jobId) {
+        return rejudgeService.resume(jobId);
+    }
+
+    @DeleteMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RejudgeProgress cancel(@PathVariable String jobId) {
+        return rejudgeService.cancel(jobId);
+    }
+}
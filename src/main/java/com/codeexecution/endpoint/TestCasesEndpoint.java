@@ -0,0 +1,52 @@
+package com.codeexecution.endpoint;
+
+import com.codeexecution.config.TestCaseCacheProperties;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.service.TestCaseCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/testcases}: lists the cached problems, and warms
+ * ({@code POST /actuator/testcases/{problemId}}) or evicts
+ * ({@code DELETE /actuator/testcases/{problemId}}) a single problem.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "testcases")
+@RequiredArgsConstructor
+public class TestCasesEndpoint {
+
+    private final TestCaseCacheService testCaseCacheService;
+    private final TestCaseCacheProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> cachedProblems() {
+        return Map.of(
+                "weightBytes", testCaseCacheService.getWeightedSize(),
+                "maxWeightBytes", properties.getMaxWeightBytes(),
+                "problems", testCaseCacheService.getCachedProblems());
+    }
+
+    @WriteOperation
+    public Map<String, Object> warm(@Selector String problemId) {
+        log.info("Warming test cases for problem: {}", problemId);
+        List<TestCase> testCases = testCaseCacheService.warm(problemId);
+        return Map.of("problemId", problemId, "testCases", testCases.size());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> evict(@Selector String problemId) {
+        log.info("Evicting test cases for problem: {}", problemId);
+        return Map.of("problemId", problemId, "evicted", testCaseCacheService.evict(problemId));
+    }
+}
@@ -0,0 +1,77 @@
+package com.codeexecution.entity;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One judged submission. Only a hash of the source is kept.
+ */
+@Entity
+@Table(name = "submission_history", indexes = {
+        @Index(name = "idx_submission_history_problem", columnList = "problem_id, created_at"),
+        @Index(name = "idx_submission_history_user", columnList = "user_id, created_at")
+})
+@Getter @Setter
+@NoArgsConstructor
+public class SubmissionRecord {
+
+    // Sequence ids are handed out in blocks, so Hibernate can batch the inserts; IDENTITY would rule that out
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submission_history_seq")
+    @SequenceGenerator(name = "submission_history_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(name = "problem_id", nullable = false)
+    private String problemId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String priority;
+
+    @Column(name = "source_hash", nullable = false, length = 64)
+    private String sourceHash;
+
+    // "Accepted", or the status of the first test case that did not pass
+    private String verdict;
+
+    private boolean passed;
+
+    @Column(name = "passed_count")
+    private int passedCount;
+
+    @Column(name = "total_count")
+    private int totalCount;
+
+    @Column(name = "duration_ms")
+    private long durationMs;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @OneToMany(mappedBy = "submission", cascade = CascadeType.PERSIST)
+    @OrderBy("testCaseIndex")
+    private List<TestCaseOutcome> outcomes = new ArrayList<>();
+
+    public void addOutcome(TestCaseOutcome outcome) {
+        outcome.setSubmission(this);
+        outcomes.add(outcome);
+    }
+}
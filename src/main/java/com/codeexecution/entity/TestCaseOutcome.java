@@ -0,0 +1,55 @@
+package com.codeexecution.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How one test case of a {@link SubmissionRecord} went.
+ */
+@Entity
+@Table(name = "test_case_outcome", indexes = {
+        @Index(name = "idx_test_case_outcome_submission", columnList = "submission_id")
+})
+@Getter @Setter
+@NoArgsConstructor
+public class TestCaseOutcome {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_case_outcome_seq")
+    @SequenceGenerator(name = "test_case_outcome_seq", allocationSize = 1000)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "submission_id", nullable = false)
+    private SubmissionRecord submission;
+
+    @Column(name = "test_case_index")
+    private int testCaseIndex;
+
+    private String token;
+
+    @Column(name = "status_id")
+    private Integer statusId;
+
+    private String status;
+
+    // Seconds of CPU time, as Judge0 reports it
+    private Double time;
+
+    // Kilobytes, as Judge0 reports it
+    private Double memory;
+
+    private boolean passed;
+}
@@ -0,0 +1,18 @@
+package com.codeexecution.exception;
+
+/**
+ * A request turned away at the door because it could not be served in
+ * time; answered with 429 and {@code Retry-After}.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.codeexecution.exception;
+
+/**
+ * The caller's deadline passed before the work could be done; the work
+ * was dropped rather than finished late.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.codeexecution.exception;
 
 import com.codeexecution.service.Judge0Service;
+import com.codeexecution.service.TestCaseLoaderService;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,10 +15,12 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final long EXECUTOR_RETRY_AFTER_SECONDS = 1;
 
     @ExceptionHandler(Judge0Service.Judge0Exception.class)
     public ResponseEntity<Object> handleJudge0Exception(Judge0Service.Judge0Exception ex, WebRequest request) {
@@ -35,6 +40,62 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 ex.getMessage());
     }
 
+    // @Min/@Max and friends on the parameters of a @Validated controller
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex, WebRequest request) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return createErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                "Invalid request",
+                ex.getMessage());
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Object> handleAdmissionRejected(AdmissionRejectedException ex, WebRequest request) {
+        log.info("Request rejected by admission control: {}", ex.getMessage());
+        return createErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getRetryAfterSeconds(),
+                "Too many requests",
+                ex.getMessage());
+    }
+
+    // The task executor's queue is full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecution(RejectedExecutionException ex, WebRequest request) {
+        log.warn("Task executor rejected work: {}", ex.getMessage());
+        return createErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS,
+                EXECUTOR_RETRY_AFTER_SECONDS,
+                "Too many requests",
+                "The service is at capacity, please retry");
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Object> handleDeadlineExceeded(DeadlineExceededException ex, WebRequest request) {
+        return createErrorResponse(
+                HttpStatus.GATEWAY_TIMEOUT,
+                "Deadline exceeded",
+                ex.getMessage());
+    }
+
+    @ExceptionHandler(TestCaseLoaderService.TestCaseLoadException.class)
+    public ResponseEntity<Object> handleTestCaseLoadException(TestCaseLoaderService.TestCaseLoadException ex, WebRequest request) {
+        log.warn("Test cases unavailable: {}", ex.getMessage());
+        return createErrorResponse(
+                HttpStatus.NOT_FOUND,
+                "Test cases not found",
+                ex.getMessage());
+    }
+
+    @ExceptionHandler(RejudgeJobNotFoundException.class)
+    public ResponseEntity<Object> handleRejudgeJobNotFound(RejudgeJobNotFoundException ex, WebRequest request) {
+        return createErrorResponse(
+                HttpStatus.NOT_FOUND,
+                "Rejudge job not found",
+                ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -53,4 +114,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         body.put("message", message);
         return new ResponseEntity<>(body, status);
     }
+
+    private ResponseEntity<Object> createErrorResponse(
+            HttpStatus status, long retryAfterSeconds, String error, String message) {
+        ResponseEntity<Object> response = createErrorResponse(status, error, message);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response.getBody());
+    }
 }
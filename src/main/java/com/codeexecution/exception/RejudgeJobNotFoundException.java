@@ -0,0 +1,7 @@
+package com.codeexecution.exception;
+
+public class RejudgeJobNotFoundException extends RuntimeException {
+    public RejudgeJobNotFoundException(String jobId) {
+        super("No rejudge job " + jobId);
+    }
+}
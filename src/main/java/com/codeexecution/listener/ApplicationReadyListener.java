@@ -1,6 +1,8 @@
 package com.codeexecution.listener;
 
 import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.service.RejudgeService;
+import com.codeexecution.service.WarmUpService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -13,9 +15,15 @@ import org.springframework.stereotype.Component;
 public class ApplicationReadyListener {
 
     private final Judge0Properties judge0Properties;
+    private final WarmUpService warmUpService;
+    private final RejudgeService rejudgeService;
 
+    // Readiness only switches to ACCEPTING_TRAFFIC after ApplicationReadyEvent listeners return,
+    // so warming up here keeps the instance out of rotation until it is done
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
+        warmUpService.warmUp();
+        rejudgeService.resumeJobs();
         log.info("\n" +
                 "=========================================================\n" +
                 "  Code Execution Service is ready!\n" +
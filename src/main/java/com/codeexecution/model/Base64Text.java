@@ -0,0 +1,60 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Jackson (de)serializers for the text fields Judge0 base64 encodes when
+ * asked to with {@code base64_encoded=true}. They only encode or decode
+ * when the ObjectWriter or ObjectReader carries {@link #ATTRIBUTE} set to
+ * true, so the same models are plain text everywhere else, e.g. in our
+ * own API responses.
+ */
+public final class Base64Text {
+    public static final String ATTRIBUTE = "judge0.base64";
+
+    private Base64Text() {
+    }
+
+    private static boolean enabled(Object attribute) {
+        return Boolean.TRUE.equals(attribute);
+    }
+
+    public static class Serializer extends StdSerializer<String> {
+        public Serializer() {
+            super(String.class);
+        }
+
+        @Override
+        public void serialize(String value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (enabled(provider.getAttribute(ATTRIBUTE))) {
+                // Encoded by the generator straight into its output buffer
+                generator.writeBinary(value.getBytes(StandardCharsets.UTF_8));
+            } else {
+                generator.writeString(value);
+            }
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<String> {
+        public Deserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (enabled(context.getAttribute(ATTRIBUTE))) {
+                // Judge0 breaks encoded text into lines, which the decoder skips
+                return new String(parser.getBinaryValue(), StandardCharsets.UTF_8);
+            }
+            return parser.getValueAsString();
+        }
+    }
+}
@@ -10,4 +10,21 @@ public class CodeExecutionRequest {
     @NotBlank(message = "Source code is required")
     @JsonProperty("source_code")
     private String sourceCode;
+
+    /**
+     * Stop at the first failing test case and skip the rest
+     */
+    @JsonProperty("fail_fast")
+    private boolean failFast;
+
+    /**
+     * Scheduling class: submit (the default) or interactive, which is
+     * capped at {@code scheduler.max-client-priority}
+     */
+    private ExecutionContext.Priority priority;
+
+    /**
+     * Return a per-stage timing breakdown with the result
+     */
+    private boolean debug;
 }
\ No newline at end of file
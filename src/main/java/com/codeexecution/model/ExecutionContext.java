@@ -0,0 +1,80 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Who an execution runs for, how urgent it is and when its answer stops
+ * being useful. Carried from the controller down to the Judge0 submission
+ * scheduler and poller. A null {@code deadline} means no deadline; a null
+ * {@code trace} means the stages are not timed. {@code problemId} is set
+ * once the request is bound to a problem, so the poller can learn per
+ * problem timings.
+ */
+public record ExecutionContext(String tenant, Priority priority, Instant deadline, String problemId,
+                               ExecutionTrace trace) {
+
+    public static final String DEFAULT_TENANT = "anonymous";
+    public static final ExecutionContext DEFAULT = new ExecutionContext(DEFAULT_TENANT, Priority.SUBMIT);
+
+    public enum Priority {
+        @JsonProperty("interactive")
+        INTERACTIVE,  // A user waiting on a "run" against sample tests
+        @JsonProperty("submit")
+        SUBMIT,       // A final submission
+        @JsonProperty("rejudge")
+        REJUDGE       // Background re-evaluation of past submissions
+    }
+
+    public ExecutionContext {
+        tenant = tenant == null || tenant.isBlank() ? DEFAULT_TENANT : tenant;
+        priority = priority == null ? Priority.SUBMIT : priority;
+    }
+
+    public ExecutionContext(String tenant, Priority priority, Instant deadline) {
+        this(tenant, priority, deadline, null, null);
+    }
+
+    public ExecutionContext(String tenant, Priority priority) {
+        this(tenant, priority, null, null, null);
+    }
+
+    public ExecutionContext withTrace(ExecutionTrace trace) {
+        return new ExecutionContext(tenant, priority, deadline, problemId, trace);
+    }
+
+    public ExecutionContext forProblem(String problemId) {
+        return new ExecutionContext(tenant, priority, deadline, problemId, trace);
+    }
+
+    public boolean hasDeadline() {
+        return deadline != null;
+    }
+
+    /**
+     * Time left until the deadline, never negative; {@code Long.MAX_VALUE}
+     * without a deadline.
+     */
+    public long remainingMillis() {
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+    }
+
+    public boolean isExpired() {
+        return deadline != null && !Instant.now().isBefore(deadline);
+    }
+
+    public ExecutionTrace.Stage stage(String name) {
+        return trace == null ? ExecutionTrace.Stage.NONE : trace.stage(name);
+    }
+
+    public void record(String stage, long nanos) {
+        if (trace != null) {
+            trace.record(stage, nanos);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Where the time of an execution went, returned when the request asks for
+ * debug output.
+ */
+public record ExecutionDebug(@JsonProperty("submission_id") String submissionId,
+                             // The verdict came from an identical earlier or concurrent submission
+                             boolean cached,
+                             @JsonProperty("total_ms") double totalMs,
+                             List<StageTiming> stages) {
+
+    public record StageTiming(String stage,
+                              long count,
+                              @JsonProperty("total_ms") double totalMs,
+                              @JsonProperty("max_ms") double maxMs) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.codeexecution.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import java.util.List;
@@ -11,4 +12,24 @@ public class ExecutionResult {
     private final int passedCount;
     private final int totalCount;
     private final List<TestCaseResult> testCaseResults;
-}
\ No newline at end of file
+    // Indices of test cases not run because an earlier one failed in fail-fast mode
+    private final List<Integer> skippedTestCases;
+    // Per-stage timings, only when the request asked for them
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ExecutionDebug debug;
+
+    public ExecutionResult(boolean overallPassed, int passedCount, int totalCount, List<TestCaseResult> testCaseResults) {
+        this(overallPassed, passedCount, totalCount, testCaseResults, List.of());
+    }
+
+    /**
+     * A copy carrying {@code debug}; results may be shared through the
+     * verdict cache, so they are never changed in place.
+     */
+    public ExecutionResult withDebug(ExecutionDebug debug) {
+        ExecutionResult copy = new ExecutionResult(overallPassed, passedCount, totalCount, testCaseResults,
+                skippedTestCases);
+        copy.debug = debug;
+        return copy;
+    }
+}
@@ -0,0 +1,122 @@
+package com.codeexecution.model;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Times the stages of one execution under a submission id. Each stage is a
+ * Micrometer {@link Observation} under the execution's own, so stages show
+ * up as {@code code.execution.stage} timers tagged by stage and, with a
+ * tracing bridge on the classpath, as child spans carrying the submission
+ * id. Durations are also summed per stage for {@link ExecutionDebug}.
+ */
+public final class ExecutionTrace {
+    public static final String EXECUTION_OBSERVATION = "code.execution.submission";
+    public static final String STAGE_OBSERVATION = "code.execution.stage";
+
+    private final String submissionId = UUID.randomUUID().toString();
+    private final ObservationRegistry registry;
+    private final Observation execution;
+    private final long startNanos = System.nanoTime();
+    // Stage -> {count, total nanos, max nanos}, in the order stages first ended
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+    private ExecutionTrace(ObservationRegistry registry, ExecutionContext context) {
+        this.registry = registry;
+        this.execution = Observation.createNotStarted(EXECUTION_OBSERVATION, registry)
+                .lowCardinalityKeyValue("priority", context.priority().name().toLowerCase())
+                .highCardinalityKeyValue("submission.id", submissionId)
+                .highCardinalityKeyValue("tenant", context.tenant())
+                .start();
+    }
+
+    public static ExecutionTrace start(ObservationRegistry registry, ExecutionContext context) {
+        return new ExecutionTrace(registry, context);
+    }
+
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
+    public Stage stage(String name) {
+        Observation observation = Observation.createNotStarted(STAGE_OBSERVATION, registry)
+                .lowCardinalityKeyValue("stage", name)
+                .highCardinalityKeyValue("submission.id", submissionId)
+                .parentObservation(execution)
+                .start();
+        return new Stage(this, name, observation);
+    }
+
+    /**
+     * Adds a stage measured elsewhere, such as time in Judge0's queue; it is
+     * only part of the debug breakdown.
+     */
+    public void record(String name, long nanos) {
+        synchronized (stages) {
+            long[] stats = stages.computeIfAbsent(name, key -> new long[3]);
+            stats[0]++;
+            stats[1] += nanos;
+            stats[2] = Math.max(stats[2], nanos);
+        }
+    }
+
+    public void finish() {
+        execution.stop();
+    }
+
+    /**
+     * The stages so far. Stages of concurrent batches and polls overlap, so
+     * their totals can add up to more than the execution took.
+     */
+    public ExecutionDebug toDebug(boolean cached) {
+        List<ExecutionDebug.StageTiming> timings = new ArrayList<>();
+        synchronized (stages) {
+            stages.forEach((name, stats) -> timings.add(
+                    new ExecutionDebug.StageTiming(name, stats[0], millis(stats[1]), millis(stats[2]))));
+        }
+        return new ExecutionDebug(submissionId, cached, millis(System.nanoTime() - startNanos), timings);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * A running stage; end it exactly once. Ending a stage of no trace does
+     * nothing.
+     */
+    public static final class Stage {
+        public static final Stage NONE = new Stage(null, null, null);
+
+        private final ExecutionTrace trace;
+        private final String name;
+        private final Observation observation;
+        private final long startNanos = System.nanoTime();
+
+        private Stage(ExecutionTrace trace, String name, Observation observation) {
+            this.trace = trace;
+            this.name = name;
+            this.observation = observation;
+        }
+
+        public void end() {
+            if (trace != null) {
+                observation.stop();
+                trace.record(name, System.nanoTime() - startNanos);
+            }
+        }
+
+        public void end(Throwable error) {
+            if (trace != null && error != null) {
+                observation.error(error);
+            }
+            end();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Where a rejudge job stands. Throughput is measured since the job last
+ * started or resumed in this process.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RejudgeProgress(@JsonProperty("job_id") String jobId,
+                              @JsonProperty("problem_id") String problemId,
+                              State state,
+                              int total,
+                              int completed,
+                              int passed,
+                              int failed,
+                              @JsonProperty("submissions_per_second") double submissionsPerSecond,
+                              @JsonProperty("test_cases_per_second") double testCasesPerSecond,
+                              @JsonProperty("created_at") Instant createdAt,
+                              @JsonProperty("updated_at") Instant updatedAt,
+                              String error) {
+
+    public enum State {
+        @JsonProperty("running")
+        RUNNING,
+        @JsonProperty("completed")
+        COMPLETED,
+        @JsonProperty("failed")
+        FAILED,     // Stopped on an error; resumable
+        @JsonProperty("cancelled")
+        CANCELLED
+    }
+}
@@ -0,0 +1,40 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejudgeRequest {
+
+    @NotBlank(message = "Problem id is required")
+    @JsonProperty("problem_id")
+    private String problemId;
+
+    @NotEmpty(message = "At least one submission is required")
+    private List<@Valid Submission> submissions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Submission {
+
+        /**
+         * The caller's id for the submission, echoed in its verdict
+         */
+        @NotBlank(message = "Submission id is required")
+        private String id;
+
+        @NotBlank(message = "Source code is required")
+        @JsonProperty("source_code")
+        private String sourceCode;
+    }
+}
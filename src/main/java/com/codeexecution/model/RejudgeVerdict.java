@@ -0,0 +1,17 @@
+package com.codeexecution.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The outcome of one rejudged submission.
+ */
+public record RejudgeVerdict(@JsonProperty("submission_id") String submissionId,
+                             boolean passed,
+                             @JsonProperty("passed_count") int passedCount,
+                             @JsonProperty("total_count") int totalCount) {
+
+    public static RejudgeVerdict of(String submissionId, ExecutionResult result) {
+        return new RejudgeVerdict(submissionId, result.isOverallPassed(), result.getPassedCount(),
+                result.getTotalCount());
+    }
+}
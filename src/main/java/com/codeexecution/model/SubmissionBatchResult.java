@@ -0,0 +1,15 @@
+package com.codeexecution.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response body of Judge0's GET /submissions/batch endpoint.
+ */
+@Data
+@NoArgsConstructor
+public class SubmissionBatchResult {
+    private List<SubmissionResult> submissions;
+}
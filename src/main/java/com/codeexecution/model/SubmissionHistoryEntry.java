@@ -0,0 +1,52 @@
+package com.codeexecution.model;
+
+import com.codeexecution.entity.SubmissionRecord;
+import com.codeexecution.entity.TestCaseOutcome;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A stored submission as the history API returns it. Outcomes are only
+ * filled in when a single submission is requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SubmissionHistoryEntry(Long id,
+                                     @JsonProperty("problem_id") String problemId,
+                                     @JsonProperty("user_id") String userId,
+                                     String priority,
+                                     @JsonProperty("source_hash") String sourceHash,
+                                     String verdict,
+                                     boolean passed,
+                                     @JsonProperty("passed_count") int passedCount,
+                                     @JsonProperty("total_count") int totalCount,
+                                     @JsonProperty("duration_ms") long durationMs,
+                                     @JsonProperty("created_at") Instant createdAt,
+                                     List<Outcome> outcomes) {
+
+    public record Outcome(@JsonProperty("test_case_index") int testCaseIndex,
+                          String token,
+                          @JsonProperty("status_id") Integer statusId,
+                          String status,
+                          Double time,
+                          Double memory,
+                          boolean passed) {
+    }
+
+    public static SubmissionHistoryEntry of(SubmissionRecord record, boolean withOutcomes) {
+        List<Outcome> outcomes = withOutcomes
+                ? record.getOutcomes().stream().map(SubmissionHistoryEntry::outcome).toList()
+                : null;
+        return new SubmissionHistoryEntry(record.getId(), record.getProblemId(), record.getUserId(),
+                record.getPriority(), record.getSourceHash(), record.getVerdict(), record.isPassed(),
+                record.getPassedCount(), record.getTotalCount(), record.getDurationMs(), record.getCreatedAt(),
+                outcomes);
+    }
+
+    private static Outcome outcome(TestCaseOutcome outcome) {
+        return new Outcome(outcome.getTestCaseIndex(), outcome.getToken(), outcome.getStatusId(),
+                outcome.getStatus(), outcome.getTime(), outcome.getMemory(), outcome.isPassed());
+    }
+}
@@ -1,6 +1,8 @@
 package com.codeexecution.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,8 +12,12 @@ import lombok.NoArgsConstructor;
 /**
  * Represents a code submission request to Judge0.
  * All fields are optional except source_code and language_id.
+ * Unset fields are left out of the request body; source_code, stdin and
+ * expected_output are base64 encoded when serialized with
+ * {@link Base64Text#ATTRIBUTE}.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +28,7 @@ public class SubmissionRequest {
      */
     @NotBlank(message = "Source code is required")
     @JsonProperty("source_code")
+    @JsonSerialize(using = Base64Text.Serializer.class)
     private String sourceCode;
 
     /**
@@ -35,12 +42,14 @@ public class SubmissionRequest {
      * Standard input for the program
      */
     @JsonProperty("stdin")
+    @JsonSerialize(using = Base64Text.Serializer.class)
     private String stdin;
 
     /**
      * Expected output for the test case (used for checking correctness)
      */
     @JsonProperty("expected_output")
+    @JsonSerialize(using = Base64Text.Serializer.class)
     private String expectedOutput;
 
     /**
@@ -49,6 +58,12 @@ public class SubmissionRequest {
     @JsonProperty("cpu_time_limit")
     private Double cpuTimeLimit;
 
+    /**
+     * Wall clock time limit in seconds
+     */
+    @JsonProperty("wall_time_limit")
+    private Double wallTimeLimit;
+
     /**
      * Memory limit in KB
      */
@@ -89,7 +104,7 @@ public class SubmissionRequest {
     private Integer numberOfRuns;
 
     /**
-     * Additional files
+     * Additional files as a base64 encoded zip archive
      */
     @JsonProperty("additional_files")
     private String additionalFiles;
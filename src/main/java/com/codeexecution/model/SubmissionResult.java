@@ -1,25 +1,39 @@
 package com.codeexecution.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class SubmissionResult {
+    // Judge0 base64 encodes these when asked to; see Base64Text
+    @JsonDeserialize(using = Base64Text.Deserializer.class)
     private String stdout;
+    @JsonDeserialize(using = Base64Text.Deserializer.class)
     private String stderr;
+    @JsonAlias("compile_output")
+    @JsonDeserialize(using = Base64Text.Deserializer.class)
     private String compileOutput;
+    @JsonDeserialize(using = Base64Text.Deserializer.class)
     private String message;
+    @JsonAlias("exit_code")
     private Integer exitCode;
+    @JsonAlias("exit_signal")
     private Integer exitSignal;
     private Status status;
+    @JsonAlias("created_at")
     private String createdAt;
+    @JsonAlias("finished_at")
     private String finishedAt;
     private String token;
     private Double time;
+    @JsonAlias("wall_time")
     private Double wallTime;
     private Double memory;
 
@@ -1,13 +1,164 @@
 package com.codeexecution.model;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class TestCase {
     private String input;
     private String expectedOutput;
-}
\ No newline at end of file
+
+    // Set for lazily loaded test cases: the text is read on each access and never kept on heap
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    private transient Content inputContent;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    private transient Content expectedOutputContent;
+
+    public TestCase(String input, String expectedOutput) {
+        this.input = input;
+        this.expectedOutput = expectedOutput;
+    }
+
+    /**
+     * A test case backed by UTF-8 slices of a mapped file.
+     */
+    public static TestCase ofSlices(ByteBuffer inputSlice, ByteBuffer expectedOutputSlice) {
+        return ofContent(new SliceContent(inputSlice), new SliceContent(expectedOutputSlice));
+    }
+
+    /**
+     * A test case whose files are only read when its input or expected
+     * output is asked for. Sizes are taken as given.
+     */
+    public static TestCase ofFiles(Path inputFile, long inputSize, Path expectedOutputFile, long expectedOutputSize) {
+        return ofContent(new FileContent(inputFile, inputSize), new FileContent(expectedOutputFile, expectedOutputSize));
+    }
+
+    private static TestCase ofContent(Content input, Content expectedOutput) {
+        TestCase testCase = new TestCase();
+        testCase.inputContent = input;
+        testCase.expectedOutputContent = expectedOutput;
+        return testCase;
+    }
+
+    public String getInput() {
+        return input == null && inputContent != null ? inputContent.read() : input;
+    }
+
+    public String getExpectedOutput() {
+        return expectedOutput == null && expectedOutputContent != null ? expectedOutputContent.read() : expectedOutput;
+    }
+
+    public boolean hasExpectedOutput() {
+        return expectedOutput != null || expectedOutputContent != null;
+    }
+
+    /**
+     * The expected output as a stream; lazily loaded content is decoded as
+     * it is read rather than materialized.
+     */
+    public Reader openExpectedOutput() {
+        return expectedOutput == null && expectedOutputContent != null
+                ? expectedOutputContent.open()
+                : new StringReader(expectedOutput == null ? "" : expectedOutput);
+    }
+
+    /**
+     * Size of the input in bytes when loaded lazily, in chars otherwise; never reads the content.
+     */
+    public int inputSize() {
+        return input == null && inputContent != null ? inputContent.size() : length(input);
+    }
+
+    public int expectedOutputSize() {
+        return expectedOutput == null && expectedOutputContent != null ? expectedOutputContent.size() : length(expectedOutput);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private interface Content {
+        String read();
+
+        Reader open();
+
+        int size();
+    }
+
+    private record SliceContent(ByteBuffer slice) implements Content {
+        @Override
+        public String read() {
+            // duplicate() so concurrent readers do not share a position
+            return StandardCharsets.UTF_8.decode(slice.duplicate()).toString();
+        }
+
+        @Override
+        public Reader open() {
+            ByteBuffer bytes = slice.duplicate();
+            return new InputStreamReader(new InputStream() {
+                @Override
+                public int read() {
+                    return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (!bytes.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, bytes.remaining());
+                    bytes.get(buffer, offset, count);
+                    return count;
+                }
+            }, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() {
+            return slice.remaining();
+        }
+    }
+
+    private record FileContent(Path file, long length) implements Content {
+        @Override
+        public String read() {
+            try {
+                return Files.readString(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading test case file: " + file, e);
+            }
+        }
+
+        @Override
+        public Reader open() {
+            try {
+                return Files.newBufferedReader(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading test case file: " + file, e);
+            }
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, length);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.codeexecution.repository;
+
+import com.codeexecution.entity.SubmissionRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SubmissionRecordRepository extends JpaRepository<SubmissionRecord, Long> {
+
+    // Both served by the (problem_id, created_at) and (user_id, created_at) indexes
+    Page<SubmissionRecord> findByProblemIdOrderByCreatedAtDesc(String problemId, Pageable pageable);
+
+    Page<SubmissionRecord> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "outcomes")
+    Optional<SubmissionRecord> findWithOutcomesById(Long id);
+}
@@ -0,0 +1,126 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * AIMD controller for how Judge0 batches are shaped. Every healthy
+ * {@code submitBatch} call grows the batch size by one and, once batches
+ * are at their maximum, slowly adds parallel batches. A 429, a 5xx, a
+ * transport error or a smoothed latency above the target halves both.
+ * Decreases are spaced by one smoothed latency so a burst of failures from
+ * the same congestion episode only counts once. While the Judge0 circuit
+ * breaker is not closed the controller hands out its minimums.
+ */
+@Slf4j
+@Component
+public class AdaptiveBatchController {
+    private static final String CIRCUIT_BREAKER = "judge0CircuitBreaker";
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final Judge0Properties properties;
+    private final ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry;
+    private final MetricsService metricsService;
+
+    private double batchSize;
+    private double concurrency;
+    private double latencyEwmaMs;
+    private long lastDecreaseAt;
+
+    public AdaptiveBatchController(Judge0Properties properties,
+                                   ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+                                   MetricsService metricsService) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.metricsService = metricsService;
+        this.batchSize = clamp(properties.getBatchSize(), properties.getMinBatchSize(), properties.getMaxBatchSize());
+        this.concurrency = clamp(properties.getBatchConcurrency(), 1, properties.getMaxBatchConcurrency());
+        metricsService.registerBatchingGauges(this::currentBatchSize, this::currentConcurrency, this::latencyEwmaMs);
+    }
+
+    /**
+     * Batch size and number of batches in flight to use for one submission.
+     */
+    public BatchPlan plan() {
+        if (isCircuitBreakerOpen()) {
+            return new BatchPlan(properties.getMinBatchSize(), 1);
+        }
+        return new BatchPlan(currentBatchSize(), currentConcurrency());
+    }
+
+    public synchronized void onSuccess(long latencyMs) {
+        latencyEwmaMs = latencyEwmaMs == 0
+                ? latencyMs
+                : LATENCY_SMOOTHING * latencyMs + (1 - LATENCY_SMOOTHING) * latencyEwmaMs;
+
+        if (latencyEwmaMs > properties.getBatchLatencyTargetMs()) {
+            decrease("latency");
+            return;
+        }
+
+        if (batchSize < properties.getMaxBatchSize()) {
+            batchSize = Math.min(properties.getMaxBatchSize(), batchSize + 1);
+        } else {
+            // One extra parallel batch per `concurrency` healthy calls
+            concurrency = Math.min(properties.getMaxBatchConcurrency(), concurrency + 1 / concurrency);
+        }
+    }
+
+    public synchronized void onFailure(Throwable error) {
+        int status = error instanceof Judge0Service.Judge0Exception judge0Exception
+                ? judge0Exception.getStatusCode()
+                : -1;
+        if (status == 429) {
+            decrease("throttled");
+        } else if (status >= 500 || status == -1) {
+            decrease("error");
+        }
+        // Other 4xx responses are problems with the request, not with Judge0's capacity
+    }
+
+    private void decrease(String reason) {
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseAt < Math.max(latencyEwmaMs, properties.getPollingIntervalMs())) {
+            return;
+        }
+        lastDecreaseAt = now;
+        batchSize = Math.max(properties.getMinBatchSize(), batchSize / 2);
+        concurrency = Math.max(1, concurrency / 2);
+        metricsService.recordBatchBackoff(reason);
+        log.info("Backing off Judge0 batching ({}): batch size {}, concurrency {}",
+                reason, currentBatchSize(), currentConcurrency());
+    }
+
+    private boolean isCircuitBreakerOpen() {
+        CircuitBreakerRegistry registry = circuitBreakerRegistry.getIfAvailable();
+        if (registry == null) {
+            return false;
+        }
+        CircuitBreaker.State state = registry.circuitBreaker(CIRCUIT_BREAKER).getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.HALF_OPEN
+                || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private synchronized int currentBatchSize() {
+        return (int) batchSize;
+    }
+
+    private synchronized int currentConcurrency() {
+        return (int) concurrency;
+    }
+
+    synchronized double latencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    private static double clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public record BatchPlan(int batchSize, int concurrency) {
+    }
+}
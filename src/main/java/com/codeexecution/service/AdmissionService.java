@@ -0,0 +1,104 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.AdmissionProperties;
+import com.codeexecution.config.SchedulerProperties;
+import com.codeexecution.exception.AdmissionRejectedException;
+import com.codeexecution.model.ExecutionContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Turns requests away up front when they cannot finish before their
+ * deadline, instead of letting them queue and time out after spending
+ * sandbox time.
+ * <p>
+ * The estimate is the wait for a submission slot (batches queued in the
+ * request's priority class and more urgent ones, spread over the
+ * scheduler's slots, times the recent batch submit latency) plus the recent
+ * end-to-end execution time, so a rejudge backlog does not turn away
+ * interactive runs. Requests are only
+ * turned away while there is a backlog, so a slow spell cannot lock
+ * everyone out: once the queue drains, requests are admitted again and
+ * refresh the execution time estimate.
+ */
+@Slf4j
+@Service
+public class AdmissionService {
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final AdmissionProperties properties;
+    private final SchedulerProperties schedulerProperties;
+    private final SubmissionScheduler submissionScheduler;
+    private final AdaptiveBatchController batchController;
+    private final MetricsService metricsService;
+
+    private double executionEwmaMs;
+
+    public AdmissionService(AdmissionProperties properties, SchedulerProperties schedulerProperties,
+                            SubmissionScheduler submissionScheduler, AdaptiveBatchController batchController,
+                            MetricsService metricsService) {
+        this.properties = properties;
+        this.schedulerProperties = schedulerProperties;
+        this.submissionScheduler = submissionScheduler;
+        this.batchController = batchController;
+        this.metricsService = metricsService;
+        for (ExecutionContext.Priority priority : ExecutionContext.Priority.values()) {
+            metricsService.registerAdmissionGauge(priority.name().toLowerCase(),
+                    () -> estimateMs(submissionScheduler.getQueuedBatchesAhead(priority)));
+        }
+    }
+
+    /**
+     * The deadline for a request that asked for {@code deadlineMs}
+     * (null for none), capped at {@code admission.max-deadline-ms}.
+     */
+    public Instant deadlineFor(Long deadlineMs) {
+        long budget = deadlineMs == null || deadlineMs <= 0 ? properties.getDefaultDeadlineMs() : deadlineMs;
+        return Instant.now().plusMillis(Math.min(budget, properties.getMaxDeadlineMs()));
+    }
+
+    /**
+     * @throws AdmissionRejectedException if the request is not expected to
+     *                                    finish before its deadline
+     */
+    public void admit(ExecutionContext context) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int queuedBatches = submissionScheduler.getQueuedBatchesAhead(context.priority());
+        long estimateMs = estimateMs(queuedBatches);
+        long remainingMs = context.remainingMillis();
+        if (queuedBatches == 0 || estimateMs <= remainingMs) {
+            return;
+        }
+        String priority = context.priority().name().toLowerCase();
+        metricsService.recordAdmissionRejection(priority);
+        log.debug("Rejecting {} request from {}: estimated {}ms, deadline in {}ms",
+                priority, context.tenant(), estimateMs, remainingMs);
+        // By then the backlog ahead of a retry should have drained
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(queueWaitMs(queuedBatches) / 1000.0));
+        throw new AdmissionRejectedException(String.format(
+                "Estimated completion in %dms is past the deadline in %dms", estimateMs, remainingMs),
+                retryAfterSeconds);
+    }
+
+    public synchronized void recordExecution(long durationMs) {
+        executionEwmaMs = executionEwmaMs == 0
+                ? durationMs
+                : LATENCY_SMOOTHING * durationMs + (1 - LATENCY_SMOOTHING) * executionEwmaMs;
+    }
+
+    private long estimateMs(int queuedBatches) {
+        double executionMs;
+        synchronized (this) {
+            executionMs = executionEwmaMs;
+        }
+        return (long) (queueWaitMs(queuedBatches) + executionMs);
+    }
+
+    private double queueWaitMs(int queuedBatches) {
+        return (double) queuedBatches / schedulerProperties.getMaxInFlightBatches() * batchController.latencyEwmaMs();
+    }
+}
@@ -1,16 +1,35 @@
 package com.codeexecution.service;
 
+import com.codeexecution.config.ExecutionBackendProperties;
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.entity.TestCaseOutcome;
+import com.codeexecution.exception.DeadlineExceededException;
 import com.codeexecution.model.*;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -18,130 +37,543 @@ import java.util.stream.IntStream;
 @Service
 @RequiredArgsConstructor
 public class CodeExecutionService {
-    private static final int BATCH_SIZE = 20; // Adjust based on Judge0 rate limits
+    private static final int JAVA_LANGUAGE_ID = 62;
+    private static final String MODE_FULL = "full";
+    private static final String MODE_FAIL_FAST = "fail-fast";
+    private static final String MODE_COMPILE_ONCE = "compile-once";
+    private static final SubmissionResult.Status ACCEPTED = new SubmissionResult.Status(3, "Accepted");
+    private static final SubmissionResult.Status WRONG_ANSWER = new SubmissionResult.Status(4, "Wrong Answer");
+    private static final SubmissionResult.Status CHECKER_ERROR = new SubmissionResult.Status(13, "Internal Error");
+    private static final String DEADLINE_EXCEEDED = "Deadline Exceeded";
+    // Accepted, Wrong Answer, Compilation Error and Runtime Errors (7-12)
+    private static final Set<Integer> CACHEABLE_STATUSES = Set.of(3, 4, 6, 7, 8, 9, 10, 11, 12);
 
-    private final Judge0Service judge0Service;
+    private final Judge0BatchPoller batchPoller;
     private final TestCaseLoaderService testCaseLoaderService;
+    private final TestCaseCacheService testCaseCacheService;
     private final Executor taskExecutor;
     private final MetricsService metricsService;
+    private final AsyncCache<String, ExecutionResult> verdictCache;
+    private final CompileOnceHarness compileOnceHarness;
+    private final Judge0Properties judge0Properties;
+    private final AdaptiveBatchController batchController;
+    private final Judge0ExecutionBackend judge0Backend;
+    private final LocalJavaExecutionBackend localBackend;
+    private final ExecutionBackendProperties backendProperties;
+    private final SubmissionHistoryService historyService;
+    private final ObservationRegistry observationRegistry;
+    private final OutputComparator outputComparator;
 
-    @Cacheable(value = "testCases", key = "#problemId")
-    public List<TestCase> getCachedTestCases(String problemId) {
-        log.info("Loading test cases for problem: {}", problemId);
-        return testCaseLoaderService.loadTestCasesFromFiles(problemId);
+    // Not @Async: Spring would park an executor thread on the returned future until the verdict is in,
+    // and under load every taskExecutor thread ends up waiting on work queued behind it. In virtual mode
+    // the parked thread would hold a concurrency permit that its own poll rounds need.
+    public CompletableFuture<ExecutionResult> executeWithTestCases(String problemId, CodeExecutionRequest request,
+                                                                  ExecutionContext context) {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        ExecutionTrace trace = ExecutionTrace.start(observationRegistry, context);
+        ExecutionContext traced = context.forProblem(problemId).withTrace(trace);
+        log.debug("Executing submission {} for problem {}", trace.getSubmissionId(), problemId);
+
+        String sourceCode = request.getSourceCode();
+        ExecutionBackend backend = backendFor(problemId);
+        // Fail-fast and compile-once are Judge0 submission strategies; other backends always run everything
+        String mode = backend != judge0Backend ? MODE_FULL
+                : request.isFailFast() ? MODE_FAIL_FAST
+                : judge0Properties.isCompileOnce() ? MODE_COMPILE_ONCE : MODE_FULL;
+
+        // Identical submissions against the same test set share one verdict. Only computations without a
+        // deadline are shared, so one caller's deadline never cuts short another caller's run
+        String verdictKey = verdictKey(problemId, sourceCode, testCaseLoaderService.getTestSetVersion(problemId),
+                backend, mode);
+        AtomicBoolean computed = new AtomicBoolean();
+        Function<ExecutionContext, CompletableFuture<ExecutionResult>> compute = runContext -> {
+            computed.set(true);
+            return switch (mode) {
+                case MODE_FAIL_FAST -> runTestCasesFailFast(problemId, runContext, sourceCode);
+                case MODE_COMPILE_ONCE -> runTestCasesCompileOnce(problemId, runContext, sourceCode);
+                default -> runTestCases(backend, problemId, runContext, sourceCode);
+            };
+        };
+        CompletableFuture<ExecutionResult> shared = verdictCache.getIfPresent(verdictKey);
+        CompletableFuture<ExecutionResult> verdict;
+        if (shared == null && !traced.hasDeadline()) {
+            shared = verdictCache.get(verdictKey, (key, executor) -> compute.apply(traced));
+            verdict = shared;
+        } else if (shared == null) {
+            verdict = compute.apply(traced);
+            verdict.thenAccept(result -> {
+                if (isCacheable(result)) {
+                    verdictCache.asMap().putIfAbsent(verdictKey, CompletableFuture.completedFuture(result));
+                }
+            });
+        } else {
+            // Timed out on a copy, which leaves the shared future to the callers without a deadline
+            verdict = traced.hasDeadline()
+                    ? shared.copy().orTimeout(traced.remainingMillis(), TimeUnit.MILLISECONDS)
+                    : shared;
+        }
+        CompletableFuture<ExecutionResult> sharedVerdict = shared;
+
+        return verdict.whenComplete((result, e) -> trace.finish()).thenApply(result -> {
+            if (sharedVerdict != null && !isCacheable(result)) {
+                verdictCache.asMap().remove(verdictKey, sharedVerdict);
+            }
+            recordMetrics(problemId, stopWatch, result);
+            historyService.record(problemId, traced, sourceCode, result, stopWatch.getTotalTimeMillis());
+            // A partial verdict is no answer; tell the caller its deadline was too tight
+            if (hitDeadline(result)) {
+                throw new DeadlineExceededException("Deadline passed before all test cases finished");
+            }
+            return request.isDebug() ? result.withDebug(trace.toDebug(!computed.get())) : result;
+        }).exceptionallyCompose(CodeExecutionService::sharedVerdictTimedOut);
+    }
+
+    // Joining a shared verdict with a deadline times out on a copy; to the caller that is its deadline passing
+    private static <T> CompletableFuture<T> sharedVerdictTimedOut(Throwable e) {
+        return CompletableFuture.failedFuture(Judge0Service.unwrap(e) instanceof TimeoutException
+                ? new DeadlineExceededException("Deadline passed while waiting for an identical submission")
+                : e);
     }
 
-    @Async("taskExecutor")
-    public CompletableFuture<ExecutionResult> executeWithTestCases(String problemId, String sourceCode) {
+    /**
+     * Streaming variant of {@link #executeWithTestCases}: every
+     * {@link TestCaseResult} is handed to {@code listener} with its test case
+     * index as soon as its token finishes, in completion order. Results are
+     * not retained, so the returned aggregate carries counts only.
+     * A cached or in-flight verdict for the same submission is replayed.
+     * Every test case is run; fail-fast is not supported when streaming.
+     */
+    public CompletableFuture<ExecutionResult> executeStreaming(String problemId, CodeExecutionRequest request,
+                                                               ExecutionContext context,
+                                                               BiConsumer<Integer, TestCaseResult> listener) {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
+        ExecutionTrace trace = ExecutionTrace.start(observationRegistry, context);
+        ExecutionContext traced = context.forProblem(problemId).withTrace(trace);
 
-        CompletableFuture<List<TestCase>> testCasesFuture = CompletableFuture.supplyAsync(
-            () -> getCachedTestCases(problemId),
-            taskExecutor
-        );
+        String sourceCode = request.getSourceCode();
+        ExecutionBackend backend = backendFor(problemId);
+        String verdictKey = verdictKey(problemId, sourceCode, testCaseLoaderService.getTestSetVersion(problemId),
+                backend, MODE_FULL);
+        CompletableFuture<ExecutionResult> cached = verdictCache.getIfPresent(verdictKey);
+        if (cached != null) {
+            CompletableFuture<ExecutionResult> joined = traced.hasDeadline()
+                    ? cached.copy().orTimeout(traced.remainingMillis(), TimeUnit.MILLISECONDS)
+                    : cached;
+            return joined.whenComplete((result, e) -> trace.finish()).thenApply(result -> {
+                List<TestCaseResult> results = result.getTestCaseResults();
+                IntStream.range(0, results.size()).forEach(i -> listener.accept(i, results.get(i)));
+                recordMetrics(problemId, stopWatch, result);
+                historyService.record(problemId, traced, sourceCode, result, stopWatch.getTotalTimeMillis());
+                ExecutionResult counts = new ExecutionResult(result.isOverallPassed(), result.getPassedCount(),
+                        result.getTotalCount(), List.of());
+                return request.isDebug() ? counts.withDebug(trace.toDebug(true)) : counts;
+            }).exceptionallyCompose(CodeExecutionService::sharedVerdictTimedOut);
+        }
+
+        return startTestCases(backend, problemId, traced, sourceCode).thenCompose(resultFutures -> {
+            int total = resultFutures.size();
+            AtomicInteger passed = new AtomicInteger();
+            // Only the slim history rows are kept, not the results themselves
+            TestCaseOutcome[] outcomes = new TestCaseOutcome[total];
 
-        return testCasesFuture.thenCompose(testCases -> {
-            // Process test cases in batches
-            List<List<TestCase>> batches = partitionList(testCases, BATCH_SIZE);
+            CompletableFuture<?>[] delivered = IntStream.range(0, total)
+                    .mapToObj(i -> resultFutures.get(i).thenAccept(testCaseResult -> {
+                        if (testCaseResult.isPassed()) {
+                            passed.incrementAndGet();
+                        }
+                        outcomes[i] = historyService.outcome(i, testCaseResult);
+                        listener.accept(i, testCaseResult);
+                    }))
+                    .toArray(CompletableFuture[]::new);
+
+            return CompletableFuture.allOf(delivered).whenComplete((done, e) -> trace.finish()).thenApply(done -> {
+                ExecutionResult result = new ExecutionResult(total > 0 && passed.get() == total, passed.get(), total, List.of());
+                recordMetrics(problemId, stopWatch, result);
+                historyService.record(problemId, traced, sourceCode, result, Arrays.asList(outcomes),
+                        stopWatch.getTotalTimeMillis());
+                return request.isDebug() ? result.withDebug(trace.toDebug(false)) : result;
+            });
+        });
+    }
 
-            List<CompletableFuture<List<TestCaseResult>>> batchFutures = batches.stream()
-                    .map(batch -> processBatch(problemId, sourceCode, batch))
-                    .toList();
+    /**
+     * Runs several sources against one problem's test cases as a single
+     * stream of submissions, so backend batches stay full across source
+     * boundaries. The returned future completes once every submission has
+     * been accepted, with one verdict future per source in order. Verdicts
+     * go to the history but are neither cached nor counted in the execution
+     * metrics. A verdict future fails if one of its test cases could not be
+     * judged, for example while Judge0 is unavailable.
+     */
+    public CompletableFuture<List<CompletableFuture<ExecutionResult>>> executeAll(String problemId,
+                                                                                  List<String> sourceCodes,
+                                                                                  ExecutionContext requestContext) {
+        ExecutionContext context = requestContext.forProblem(problemId);
+        ExecutionBackend backend = backendFor(problemId);
+        long startTime = System.currentTimeMillis();
+        return loadTestCases(problemId, context).thenCompose(testCases -> {
+            int perSource = testCases.size();
+            List<SubmissionRequest> requests = new AbstractList<>() {
+                @Override
+                public SubmissionRequest get(int index) {
+                    return submissionRequest(sourceCodes.get(index / perSource), testCases.get(index % perSource));
+                }
 
-            CompletableFuture<Void> allBatches = CompletableFuture.allOf(
-                    batchFutures.toArray(new CompletableFuture[0])
-            );
+                @Override
+                public int size() {
+                    return perSource * sourceCodes.size();
+                }
+            };
 
-            return allBatches.thenApply(v -> {
-                List<TestCaseResult> allResults = batchFutures.stream()
-                        .flatMap(future -> future.join().stream())
-                        .collect(Collectors.toList());
+            return backend.execute(requests, context).thenApply(polls -> IntStream.range(0, sourceCodes.size())
+                    .mapToObj(i -> {
+                        List<CompletableFuture<SubmissionResult>> sourcePolls =
+                                polls.subList(i * perSource, (i + 1) * perSource);
+                        List<CompletableFuture<TestCaseResult>> results =
+                                toTestCaseResults(problemId, testCases, sourcePolls);
+                        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                                // A failed poll is no verdict on the source, so it fails the source's future
+                                .thenCompose(done -> CompletableFuture.allOf(sourcePolls.toArray(new CompletableFuture[0])))
+                                .thenApply(done -> {
+                                    ExecutionResult result = aggregateResults(results.stream()
+                                            .map(CompletableFuture::join)
+                                            .collect(Collectors.toList()));
+                                    historyService.record(problemId, context, sourceCodes.get(i), result,
+                                            System.currentTimeMillis() - startTime);
+                                    return result;
+                                });
+                    })
+                    .toList());
+        });
+    }
 
-                ExecutionResult result = aggregateResults(allResults);
+    private CompletableFuture<ExecutionResult> runTestCases(ExecutionBackend backend, String problemId,
+                                                            ExecutionContext context, String sourceCode) {
+        return startTestCases(backend, problemId, context, sourceCode).thenCompose(resultFutures ->
+                CompletableFuture.allOf(resultFutures.toArray(new CompletableFuture[0]))
+                        .thenApply(done -> aggregate(context, resultFutures.stream()
+                                .map(CompletableFuture::join)
+                                .collect(Collectors.toList()))));
+    }
 
-                // Record metrics
-                if (metricsService != null) {
-                    metricsService.recordTestCases(allResults.size(), result.getPassedCount());
-                    metricsService.recordSubmission(result.isOverallPassed());
-                    stopWatch.stop();
-                    metricsService.recordExecutionTime(problemId, stopWatch.getTotalTimeMillis(), result.isOverallPassed());
+    /**
+     * Runs batches one after another and stops at the first failing test
+     * case; see {@link FailFastExecution}.
+     */
+    private CompletableFuture<ExecutionResult> runTestCasesFailFast(String problemId, ExecutionContext context,
+                                                                    String sourceCode) {
+        return loadTestCases(problemId, context).thenCompose(testCases -> new FailFastExecution(problemId, testCases,
+                batch -> submitBatch(problemId, context, sourceCode, batch).thenApply(responses -> batchPoller.poll(
+                        responses.stream()
+                                .map(response -> response.getError() == null ? response.getToken() : null)
+                                .toList(),
+                        context)),
+                (testCase, result) -> toTestCaseResult(problemId, testCase, result),
+                this::errorResult)
+                .run(batchController.plan().batchSize()));
+    }
+
+    private CompletableFuture<List<TestCase>> loadTestCases(String problemId, ExecutionContext context) {
+        ExecutionTrace.Stage queueWait = context.stage("executor_queue");
+        return CompletableFuture.supplyAsync(() -> {
+            queueWait.end();
+            ExecutionTrace.Stage load = context.stage("load_test_cases");
+            try {
+                return testCaseCacheService.getTestCases(problemId);
+            } finally {
+                load.end();
+            }
+        }, taskExecutor);
+    }
+
+    private ExecutionBackend backendFor(String problemId) {
+        boolean local = backendProperties.getBackend() == ExecutionBackendProperties.Backend.LOCAL
+                || backendProperties.getLocalProblems().contains(problemId);
+        return local ? localBackend : judge0Backend;
+    }
+
+    /**
+     * Loads the test cases and starts running them on {@code backend}.
+     *
+     * @return one future per test case, in test case order
+     */
+    private CompletableFuture<List<CompletableFuture<TestCaseResult>>> startTestCases(ExecutionBackend backend,
+                                                                                     String problemId,
+                                                                                     ExecutionContext context,
+                                                                                     String sourceCode) {
+        return loadTestCases(problemId, context).thenCompose(testCases ->
+                executeTestCases(backend, problemId, context, sourceCode, testCases));
+    }
+
+    private CompletableFuture<List<CompletableFuture<TestCaseResult>>> executeTestCases(ExecutionBackend backend,
+                                                                                       String problemId,
+                                                                                       ExecutionContext context,
+                                                                                       String sourceCode,
+                                                                                       List<TestCase> testCases) {
+        // Built on access, so test data is read as the backend gets to each request rather than all up front
+        List<SubmissionRequest> requests = new AbstractList<>() {
+            @Override
+            public SubmissionRequest get(int index) {
+                return submissionRequest(sourceCode, testCases.get(index));
+            }
+
+            @Override
+            public int size() {
+                return testCases.size();
+            }
+        };
+
+        return backend.execute(requests, context)
+                .exceptionallyCompose(e -> {
+                    log.error("Error processing batch for problem: {}", problemId, e);
+                    return CompletableFuture.failedFuture(
+                            new RuntimeException("Failed to process batch: " + Judge0Service.unwrap(e).getMessage(), e));
+                })
+                .thenApply(results -> toTestCaseResults(problemId, testCases, results));
+    }
+
+    /**
+     * Compiles the source once per harness run and runs up to
+     * {@code harnessCasesPerRun} test cases against that build. The first run
+     * goes out alone and doubles as the compile check: a compilation error
+     * yields a single result instead of one per test case. Test cases a run
+     * never started fall back to regular per-test-case submissions.
+     */
+    private CompletableFuture<ExecutionResult> runTestCasesCompileOnce(String problemId, ExecutionContext context,
+                                                                       String sourceCode) {
+        return loadTestCases(problemId, context).thenCompose(testCases -> {
+            List<List<TestCase>> chunks = partitionList(testCases, judge0Properties.getHarnessCasesPerRun());
+
+            return runHarness(problemId, context, sourceCode, chunks.get(0)).thenCompose(first -> {
+                if (first.result() != null && compileOnceHarness.isCompilationError(first.result())) {
+                    TestCaseResult compileError = new TestCaseResult(testCases.get(0), first.result(), false);
+                    return CompletableFuture.completedFuture(
+                            new ExecutionResult(false, 0, testCases.size(), List.of(compileError)));
                 }
 
-                return result;
+                List<CompletableFuture<List<TestCaseResult>>> chunkResults = new ArrayList<>();
+                chunkResults.add(completeHarnessRun(problemId, context, sourceCode, first));
+                chunks.stream().skip(1)
+                        .map(chunk -> runHarness(problemId, context, sourceCode, chunk)
+                                .thenCompose(outcome -> completeHarnessRun(problemId, context, sourceCode, outcome)))
+                        .forEach(chunkResults::add);
+
+                return CompletableFuture.allOf(chunkResults.toArray(new CompletableFuture[0]))
+                        .thenApply(done -> aggregate(context, chunkResults.stream()
+                                .flatMap(future -> future.join().stream())
+                                .collect(Collectors.toList())));
             });
         });
     }
 
-    private <T> List<List<T>> partitionList(List<T> list, int batchSize) {
+    private CompletableFuture<HarnessOutcome> runHarness(String problemId, ExecutionContext context, String sourceCode,
+                                                         List<TestCase> chunk) {
+        CompileOnceHarness.HarnessRun run = compileOnceHarness.createRun(sourceCode, chunk);
+
+        return submitRequests(problemId, context, List.of(run.request())).thenCompose(responses -> {
+            SubmissionResponse response = responses.get(0);
+            String token = response.getError() == null ? response.getToken() : null;
+            return batchPoller.poll(Collections.singletonList(token), context).get(0);
+        }).handle((result, e) -> {
+            if (e != null) {
+                // Leaves every test case unstarted, so they all fall back to per-test-case submissions
+                log.warn("Harness run failed for problem {}: {}", problemId, Judge0Service.unwrap(e).getMessage());
+                return new HarnessOutcome(run, null);
+            }
+            return new HarnessOutcome(run, result);
+        });
+    }
+
+    private CompletableFuture<List<TestCaseResult>> completeHarnessRun(String problemId, ExecutionContext context,
+                                                                      String sourceCode, HarnessOutcome outcome) {
+        List<TestCase> testCases = outcome.run().testCases();
+        List<SubmissionResult> results = outcome.result() != null
+                ? compileOnceHarness.split(outcome.run(), outcome.result())
+                : Collections.nCopies(testCases.size(), null);
+
+        List<TestCase> notStarted = IntStream.range(0, testCases.size())
+                .filter(i -> results.get(i) == null)
+                .mapToObj(testCases::get)
+                .toList();
+        if (notStarted.isEmpty()) {
+            return CompletableFuture.completedFuture(IntStream.range(0, testCases.size())
+                    .mapToObj(i -> toTestCaseResult(problemId, testCases.get(i), results.get(i)))
+                    .toList());
+        }
+
+        log.debug("Harness run for problem {} left {} test cases unstarted, submitting them individually",
+                problemId, notStarted.size());
+        return executeTestCases(judge0Backend, problemId, context, sourceCode, notStarted).thenCompose(fallback ->
+                CompletableFuture.allOf(fallback.toArray(new CompletableFuture[0])).thenApply(done -> {
+                    Iterator<CompletableFuture<TestCaseResult>> fallbackResults = fallback.iterator();
+                    return IntStream.range(0, testCases.size())
+                            .mapToObj(i -> results.get(i) != null
+                                    ? toTestCaseResult(problemId, testCases.get(i), results.get(i))
+                                    : fallbackResults.next().join())
+                            .toList();
+                }));
+    }
+
+    private record HarnessOutcome(CompileOnceHarness.HarnessRun run, SubmissionResult result) {
+    }
+
+    private void recordMetrics(String problemId, StopWatch stopWatch, ExecutionResult result) {
+        if (metricsService != null) {
+            metricsService.recordTestCases(result.getTotalCount(), result.getPassedCount());
+            metricsService.recordSubmission(result.isOverallPassed());
+            stopWatch.stop();
+            metricsService.recordExecutionTime(problemId, stopWatch.getTotalTimeMillis(), result.isOverallPassed());
+        }
+    }
+
+    static <T> List<List<T>> partitionList(List<T> list, int batchSize) {
         return IntStream.range(0, (list.size() + batchSize - 1) / batchSize)
                 .mapToObj(i -> list.subList(i * batchSize, Math.min((i + 1) * batchSize, list.size())))
                 .collect(Collectors.toList());
     }
 
-    private CompletableFuture<List<TestCaseResult>> processBatch(String problemId, String sourceCode,
-                                                               List<TestCase> batch) {
+    private CompletableFuture<List<SubmissionResponse>> submitBatch(String problemId, ExecutionContext context,
+                                                                    String sourceCode, List<TestCase> batch) {
         // Create submission requests for the batch
         List<SubmissionRequest> requests = batch.stream()
-                .map(testCase -> createSubmissionRequest(sourceCode, testCase))
+                .map(testCase -> submissionRequest(sourceCode, testCase))
                 .toList();
 
-        return CompletableFuture.supplyAsync(() -> {
-            String endpoint = "/submissions/batch?wait=true";
-            long startTime = System.currentTimeMillis();
+        return submitRequests(problemId, context, requests);
+    }
 
-            try {
-                // Submit batch to Judge0
-                List<SubmissionResponse> responses = judge0Service.submitBatch(requests);
-                if (metricsService != null) {
-                    long duration = System.currentTimeMillis() - startTime;
-                    metricsService.recordApiCall(endpoint, "POST", 200, duration);
-                }
+    private CompletableFuture<List<SubmissionResponse>> submitRequests(String problemId, ExecutionContext context,
+                                                                       List<SubmissionRequest> requests) {
+        return judge0Backend.submit(requests, context)
+                .exceptionallyCompose(e -> {
+                    log.error("Error processing batch for problem: {}", problemId, e);
+                    return CompletableFuture.failedFuture(
+                            new RuntimeException("Failed to process batch: " + Judge0Service.unwrap(e).getMessage(), e));
+                });
+    }
 
-                // Process responses
-                return IntStream.range(0, batch.size())
-                        .mapToObj(i -> {
-                            TestCase testCase = batch.get(i);
-                            SubmissionResponse response = responses.get(i);
-
-                            try {
-                                // Poll for submission result
-                                SubmissionResult result = judge0Service.pollSubmissionResult(response.getToken())
-                                    .join(); // Wait for completion
-
-                                boolean passed = result.getStatus().getId() == 3; // Accepted
-                                return new TestCaseResult(testCase, result, passed);
-                            } catch (Exception e) {
-                                log.error("Error polling submission result for token: {}", response.getToken(), e);
-                                return new TestCaseResult(testCase,
-                                    SubmissionResult.builder()
-                                        .status(new SubmissionResult.Status(99, "Error"))
-                                        .build(),
-                                    false
-                                );
-                            }
-                        })
-                        .collect(Collectors.toList());
-            } catch (Exception e) {
-                if (metricsService != null) {
-                    metricsService.recordApiError(endpoint, "POST", e);
-                }
-                log.error("Error processing batch for problem: {}", problemId, e);
-                throw new RuntimeException("Failed to process batch: " + e.getMessage(), e);
+    private List<CompletableFuture<TestCaseResult>> toTestCaseResults(String problemId, List<TestCase> testCases,
+                                                                     List<CompletableFuture<SubmissionResult>> polls) {
+        return IntStream.range(0, testCases.size())
+                .mapToObj(i -> {
+                    TestCase testCase = testCases.get(i);
+                    return polls.get(i)
+                            .thenApply(result -> toTestCaseResult(problemId, testCase, result))
+                            .exceptionally(e -> {
+                                if (!(Judge0Service.unwrap(e) instanceof DeadlineExceededException)) {
+                                    log.error("Error polling submission result for test case {}", i, e);
+                                }
+                                return errorResult(testCase, e);
+                            });
+                })
+                .toList();
+    }
+
+    private TestCaseResult toTestCaseResult(String problemId, TestCase testCase, SubmissionResult result) {
+        Integer statusId = result.getStatus().getId();
+        // Accepted or Wrong Answer: the program exited cleanly and its output is judged here
+        if (outputComparator.isLocal() && (statusId == 3 || statusId == 4)) {
+            try {
+                boolean passed = outputComparator.matches(problemId, testCase, result.getStdout());
+                result.setStatus(passed ? ACCEPTED : WRONG_ANSWER);
+                return new TestCaseResult(testCase, result, passed);
+            } catch (OutputComparator.CheckerException e) {
+                log.error("Could not judge output for problem {}", problemId, e);
+                result.setStatus(CHECKER_ERROR);
+                return new TestCaseResult(testCase, result, false);
             }
-        }, taskExecutor);
+        }
+        boolean passed = statusId == 3; // Accepted
+        return new TestCaseResult(testCase, result, passed);
+    }
+
+    private TestCaseResult errorResult(TestCase testCase, Throwable e) {
+        String description = Judge0Service.unwrap(e) instanceof DeadlineExceededException ? DEADLINE_EXCEEDED : "Error";
+        return new TestCaseResult(testCase,
+            SubmissionResult.builder()
+                .status(new SubmissionResult.Status(99, description))
+                .build(),
+            false
+        );
+    }
+
+    private static boolean hitDeadline(ExecutionResult result) {
+        return result.getTestCaseResults().stream()
+                .map(TestCaseResult::getExecutionResult)
+                .anyMatch(executionResult -> executionResult != null && executionResult.getStatus() != null
+                        && DEADLINE_EXCEEDED.equals(executionResult.getStatus().getDescription()));
+    }
+
+    // Expected outputs only go over the wire when the backend judges them
+    private SubmissionRequest submissionRequest(String sourceCode, TestCase testCase) {
+        return createSubmissionRequest(sourceCode, testCase, !outputComparator.isLocal());
     }
 
-    private SubmissionRequest createSubmissionRequest(String sourceCode, TestCase testCase) {
+    static SubmissionRequest createSubmissionRequest(String sourceCode, TestCase testCase) {
+        return createSubmissionRequest(sourceCode, testCase, true);
+    }
+
+    static SubmissionRequest createSubmissionRequest(String sourceCode, TestCase testCase, boolean withExpectedOutput) {
         SubmissionRequest request = new SubmissionRequest();
         request.setSourceCode(sourceCode);
-        request.setLanguageId(62); // Java
+        request.setLanguageId(JAVA_LANGUAGE_ID);
         request.setStdin(testCase.getInput());
-        request.setExpectedOutput(testCase.getExpectedOutput());
+        if (withExpectedOutput) {
+            request.setExpectedOutput(testCase.getExpectedOutput());
+        }
         return request;
     }
 
-    private ExecutionResult aggregateResults(List<TestCaseResult> results) {
+    /**
+     * Hash of everything that determines a verdict. Line endings and
+     * trailing whitespace are normalized so cosmetic edits still hit.
+     */
+    private String verdictKey(String problemId, String sourceCode, String testSetVersion, ExecutionBackend backend,
+                              String mode) {
+        String normalizedSource = normalizeSource(sourceCode);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : List.of(problemId, String.valueOf(JAVA_LANGUAGE_ID), testSetVersion, backend.getName(), mode,
+                    normalizedSource)) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String normalizeSource(String sourceCode) {
+        return sourceCode.lines()
+                .map(String::stripTrailing)
+                .collect(Collectors.joining("\n"))
+                .strip();
+    }
+
+    /**
+     * Only verdicts that are a property of the source code are cached;
+     * time limits and infrastructure errors may not repeat.
+     */
+    private boolean isCacheable(ExecutionResult result) {
+        return result.getTotalCount() > 0 && result.getTestCaseResults().stream()
+                .map(TestCaseResult::getExecutionResult)
+                .allMatch(r -> r != null && r.getStatus() != null && r.getStatus().getId() != null
+                        && CACHEABLE_STATUSES.contains(r.getStatus().getId()));
+    }
+
+    private static ExecutionResult aggregate(ExecutionContext context, List<TestCaseResult> results) {
+        ExecutionTrace.Stage stage = context.stage("aggregate");
+        try {
+            return aggregateResults(results);
+        } finally {
+            stage.end();
+        }
+    }
+
+    static ExecutionResult aggregateResults(List<TestCaseResult> results) {
         if (results == null || results.isEmpty()) {
             return new ExecutionResult(false, 0, 0, List.of());
         }
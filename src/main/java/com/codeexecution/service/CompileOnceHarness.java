@@ -0,0 +1,208 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds Judge0 multi-file submissions that compile the source once and run
+ * it against many test inputs, and splits the combined output back into one
+ * {@link SubmissionResult} per test case.
+ * <p>
+ * The archive holds the program as {@code Main.java}, the {@code Harness}
+ * runner from {@code judge0/Harness.java}, the inputs under {@code tests/}
+ * and the {@code compile} and {@code run} scripts Judge0 executes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompileOnceHarness {
+    static final int MULTI_FILE_LANGUAGE_ID = 89;
+
+    private static final String HARNESS_SOURCE = "judge0/Harness.java";
+    private static final SubmissionResult.Status ACCEPTED = new SubmissionResult.Status(3, "Accepted");
+    private static final SubmissionResult.Status WRONG_ANSWER = new SubmissionResult.Status(4, "Wrong Answer");
+    private static final SubmissionResult.Status TIME_LIMIT_EXCEEDED = new SubmissionResult.Status(5, "Time Limit Exceeded");
+    private static final SubmissionResult.Status RUNTIME_ERROR = new SubmissionResult.Status(11, "Runtime Error (NZEC)");
+    private static final SubmissionResult.Status INTERNAL_ERROR = new SubmissionResult.Status(13, "Internal Error");
+
+    private final Judge0Properties properties;
+
+    private volatile byte[] harnessSource;
+
+    /**
+     * A submission that runs {@code testCases} in order against one build of
+     * {@code sourceCode}. The returned delimiter frames each test case's output.
+     */
+    public HarnessRun createRun(String sourceCode, List<TestCase> testCases) {
+        String delimiter = "@@" + UUID.randomUUID() + "@@";
+
+        double perCase = properties.getDefaultCpuTimeLimit();
+        double cpuLimit = Math.min(properties.getHarnessMaxCpuTimeLimit(), perCase * testCases.size() + 1.0);
+
+        SubmissionRequest request = SubmissionRequest.builder()
+                .languageId(MULTI_FILE_LANGUAGE_ID)
+                .additionalFiles(Base64.getEncoder().encodeToString(buildArchive(sourceCode, testCases, delimiter)))
+                .cpuTimeLimit(cpuLimit)
+                .wallTimeLimit(cpuLimit * 2)
+                .memoryLimit(properties.getDefaultMemoryLimit())
+                // Stack traces must not end up between the markers
+                .redirectStderrToStdout(false)
+                .build();
+        return new HarnessRun(request, delimiter, testCases);
+    }
+
+    /**
+     * Splits a finished harness run into per-test-case results, in test case
+     * order. Entries are {@code null} for test cases the run never started,
+     * e.g. after the program called {@code System.exit} or the run was killed.
+     */
+    public List<SubmissionResult> split(HarnessRun run, SubmissionResult result) {
+        List<TestCase> testCases = run.testCases();
+        List<SubmissionResult> results = new ArrayList<>(testCases.size());
+        String stdout = result.getStdout() == null ? "" : result.getStdout();
+        long perCaseLimitMillis = (long) (properties.getDefaultCpuTimeLimit() * 1000);
+
+        int position = 0;
+        for (int i = 0; i < testCases.size(); i++) {
+            String begin = run.delimiter() + " BEGIN " + i + "\n";
+            int start = position < 0 ? -1 : stdout.indexOf(begin, position);
+            if (start < 0) {
+                results.add(null);
+                position = -1;
+                continue;
+            }
+            start += begin.length();
+
+            String endPrefix = "\n" + run.delimiter() + " END " + i + " ";
+            int end = stdout.indexOf(endPrefix, start);
+            if (end < 0) {
+                // Started but killed by the sandbox, which also ends the run
+                results.add(caseResult(result, stdout.substring(start), runFailureStatus(result), null));
+                position = -1;
+                continue;
+            }
+
+            String output = stdout.substring(start, end);
+            int lineEnd = stdout.indexOf('\n', end + endPrefix.length());
+            String[] outcome = lineEnd < 0 ? null : stdout.substring(end + endPrefix.length(), lineEnd).split(" ", 2);
+            Long millis = outcome == null ? null : parseMillis(outcome[0]);
+            if (millis == null) {
+                // Judge0 cut the output off inside the marker line; the outcome is unknown, so rerun from here
+                results.add(null);
+                position = -1;
+                continue;
+            }
+            String kind = outcome.length > 1 ? outcome[1] : "OK";
+            position = lineEnd;
+
+            SubmissionResult.Status status;
+            if (kind.startsWith("RE")) {
+                status = RUNTIME_ERROR;
+            } else if (kind.equals("EXIT") && result.getExitCode() != null && result.getExitCode() != 0) {
+                status = RUNTIME_ERROR;
+            } else if (millis > perCaseLimitMillis) {
+                status = TIME_LIMIT_EXCEEDED;
+            } else {
+                status = matches(output, testCases.get(i).getExpectedOutput()) ? ACCEPTED : WRONG_ANSWER;
+            }
+            results.add(caseResult(result, output, status, millis >= 0 ? millis / 1000.0 : null));
+        }
+        return results;
+    }
+
+    private static Long parseMillis(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean isCompilationError(SubmissionResult result) {
+        return result.getStatus() != null && Integer.valueOf(6).equals(result.getStatus().getId());
+    }
+
+    // Same comparison Judge0 applies to expected_output
+    private boolean matches(String output, String expectedOutput) {
+        return expectedOutput == null || output.strip().equals(expectedOutput.strip());
+    }
+
+    private SubmissionResult.Status runFailureStatus(SubmissionResult result) {
+        Integer statusId = result.getStatus() != null ? result.getStatus().getId() : null;
+        // Accepted / Wrong Answer describe a run that exited normally, which cannot leave a case open
+        return statusId == null || statusId == 3 || statusId == 4 ? INTERNAL_ERROR : result.getStatus();
+    }
+
+    private SubmissionResult caseResult(SubmissionResult run, String stdout, SubmissionResult.Status status, Double time) {
+        return SubmissionResult.builder()
+                .token(run.getToken())
+                .stdout(stdout)
+                .stderr(run.getStderr())
+                .message(run.getMessage())
+                .status(status)
+                .time(time)
+                .memory(run.getMemory())
+                .createdAt(run.getCreatedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    private byte[] buildArchive(String sourceCode, List<TestCase> testCases, String delimiter) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "Main.java", sourceCode.getBytes(StandardCharsets.UTF_8));
+            addEntry(zip, "Harness.java", loadHarnessSource());
+            for (int i = 0; i < testCases.size(); i++) {
+                String input = testCases.get(i).getInput();
+                addEntry(zip, "tests/" + i + ".in", (input == null ? "" : input).getBytes(StandardCharsets.UTF_8));
+            }
+            addEntry(zip, "compile", String.format(
+                    "#!/bin/bash\nmkdir -p classes harness && %1$s -d classes Main.java && %1$s -d harness Harness.java\n",
+                    properties.getHarnessJavac()).getBytes(StandardCharsets.UTF_8));
+            addEntry(zip, "run", String.format(
+                    "#!/bin/bash\n%s -cp harness Harness '%s' %d\n",
+                    properties.getHarnessJava(), delimiter, testCases.size()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build harness archive", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void addEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private byte[] loadHarnessSource() throws IOException {
+        if (harnessSource == null) {
+            try (var in = new ClassPathResource(HARNESS_SOURCE).getInputStream()) {
+                harnessSource = in.readAllBytes();
+            }
+        }
+        return harnessSource;
+    }
+
+    /**
+     * A harness submission together with what is needed to split its output.
+     */
+    public record HarnessRun(SubmissionRequest request, String delimiter, List<TestCase> testCases) {
+    }
+}
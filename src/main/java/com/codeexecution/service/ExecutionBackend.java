@@ -0,0 +1,34 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Somewhere submissions can be run. Implementations report results in the
+ * Judge0 {@link SubmissionResult} shape, status ids included, so callers do
+ * not care which backend ran the code.
+ */
+public interface ExecutionBackend {
+
+    /**
+     * Short name of the backend; it is part of verdict cache keys.
+     */
+    String getName();
+
+    /**
+     * Starts running {@code requests}. The returned future completes once
+     * every request has been accepted, with one result future per request
+     * in request order.
+     * <p>
+     * {@code requests} may be a lazy view that reads test data on every
+     * {@code get}, so implementations fetch each element once, no earlier
+     * than they are ready to send it. {@code context} says who the run is
+     * for, for backends that share capacity between callers.
+     */
+    CompletableFuture<List<CompletableFuture<SubmissionResult>>> execute(List<SubmissionRequest> requests,
+                                                                        ExecutionContext context);
+}
@@ -0,0 +1,119 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Runs test cases batch after batch and stops at the first failing one:
+ * outstanding polls are cancelled and batches not yet submitted are
+ * skipped. Submissions Judge0 already holds are left to finish, as it
+ * refuses to delete queued or running ones.
+ */
+@Slf4j
+final class FailFastExecution {
+    private final String problemId;
+    private final List<TestCase> testCases;
+    private final Function<List<TestCase>, CompletableFuture<List<CompletableFuture<SubmissionResult>>>> submit;
+    private final BiFunction<TestCase, SubmissionResult, TestCaseResult> judge;
+    private final BiFunction<TestCase, Throwable, TestCaseResult> error;
+
+    private final TestCaseResult[] results;
+    private final Set<CompletableFuture<SubmissionResult>> pendingPolls = ConcurrentHashMap.newKeySet();
+    private final List<CompletableFuture<Void>> completions = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    /**
+     * @param submit submits a batch and returns one poll per test case, in order
+     * @param judge  turns a finished submission into its test case result
+     * @param error  turns a failed poll into its test case result
+     */
+    FailFastExecution(String problemId, List<TestCase> testCases,
+                      Function<List<TestCase>, CompletableFuture<List<CompletableFuture<SubmissionResult>>>> submit,
+                      BiFunction<TestCase, SubmissionResult, TestCaseResult> judge,
+                      BiFunction<TestCase, Throwable, TestCaseResult> error) {
+        this.problemId = problemId;
+        this.testCases = testCases;
+        this.submit = submit;
+        this.judge = judge;
+        this.error = error;
+        this.results = new TestCaseResult[testCases.size()];
+    }
+
+    /**
+     * Completes once every submitted test case has a result or was
+     * cancelled; skipped test cases are listed by index.
+     */
+    CompletableFuture<ExecutionResult> run(int batchSize) {
+        CompletableFuture<Void> submissions = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < testCases.size(); from += batchSize) {
+            int offset = from;
+            List<TestCase> batch = testCases.subList(from, Math.min(from + batchSize, testCases.size()));
+            submissions = submissions.thenCompose(v -> failed.get()
+                    ? CompletableFuture.completedFuture(null)
+                    : submit.apply(batch).thenAccept(polls -> track(offset, batch, polls)));
+        }
+
+        return submissions
+                .thenCompose(v -> CompletableFuture.allOf(completions.toArray(new CompletableFuture[0])))
+                .thenApply(v -> aggregate());
+    }
+
+    private void track(int offset, List<TestCase> batch, List<CompletableFuture<SubmissionResult>> polls) {
+        for (int i = 0; i < batch.size(); i++) {
+            int index = offset + i;
+            TestCase testCase = batch.get(i);
+            CompletableFuture<SubmissionResult> poll = polls.get(i);
+            pendingPolls.add(poll);
+            completions.add(poll.handle((result, e) -> {
+                pendingPolls.remove(poll);
+                if (e != null && failed.get() && Judge0Service.unwrap(e) instanceof CancellationException) {
+                    return null; // Skipped
+                }
+                TestCaseResult testCaseResult = e == null ? judge.apply(testCase, result) : error.apply(testCase, e);
+                results[index] = testCaseResult;
+                if (!testCaseResult.isPassed() && failed.compareAndSet(false, true)) {
+                    log.debug("Test case {} failed for problem {}, skipping the rest", index, problemId);
+                    cancelPending();
+                }
+                return null;
+            }));
+        }
+        // A failure may have been seen while this batch was being registered
+        if (failed.get()) {
+            cancelPending();
+        }
+    }
+
+    private void cancelPending() {
+        pendingPolls.forEach(poll -> poll.cancel(false));
+    }
+
+    private ExecutionResult aggregate() {
+        List<TestCaseResult> executed = new ArrayList<>();
+        List<Integer> skipped = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                skipped.add(i);
+            } else {
+                executed.add(results[i]);
+            }
+        }
+        int passedCount = (int) executed.stream().filter(TestCaseResult::isPassed).count();
+        boolean allPassed = !executed.isEmpty() && skipped.isEmpty() && passedCount == executed.size();
+        return new ExecutionResult(allPassed, passedCount, results.length, executed, skipped);
+    }
+}
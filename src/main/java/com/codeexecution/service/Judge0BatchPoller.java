@@ -0,0 +1,263 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.exception.DeadlineExceededException;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.ExecutionTrace;
+import com.codeexecution.model.SubmissionResult;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls all outstanding tokens of a submission together through
+ * GET /submissions/batch instead of running one polling loop per token.
+ * Each token's future is completed as soon as its result is final and the
+ * token is dropped from the next request. Rounds are scheduled on one
+ * shared timer thread, so no thread is held while waiting between them;
+ * the timer only hands rounds to the task executor. How long to wait
+ * between rounds is up to {@link PollDelayEstimator}.
+ * <p>
+ * Tokens are also registered with {@link PendingSubmissionRegistry}. When
+ * Judge0 callbacks are enabled the first round is delayed by the callback
+ * timeout, so polling only picks up tokens whose callback never arrived.
+ * <p>
+ * When the caller has a deadline, tokens still outstanding at that point
+ * fail with {@link DeadlineExceededException} and drop out of the loop.
+ * They are left to finish on Judge0, which refuses to delete queued or
+ * running submissions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Judge0BatchPoller {
+    // Judge0 rejects batch requests with more than 20 tokens by default
+    static final int MAX_TOKENS_PER_REQUEST = 20;
+
+    private static final String ENDPOINT = "/submissions/batch";
+
+    private final Judge0Service judge0Service;
+    private final Judge0Properties properties;
+    private final Executor taskExecutor;
+    private final MetricsService metricsService;
+    private final PendingSubmissionRegistry pendingSubmissions;
+    private final PollDelayEstimator delayEstimator;
+
+    private final ScheduledThreadPoolExecutor timer = newTimer();
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("judge0-poll-timer").daemon().factory());
+        // Deadline timers are cancelled when their loop finishes first
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Starts a single polling loop for the given tokens.
+     *
+     * @return one future per token, in the same order as {@code tokens}
+     */
+    public List<CompletableFuture<SubmissionResult>> poll(List<String> tokens, ExecutionContext context) {
+        return poll(tokens, Map.of(), context);
+    }
+
+    /**
+     * Like {@link #poll(List, ExecutionContext)}, for tokens some of which
+     * were registered with {@link PendingSubmissionRegistry} beforehand, so
+     * that callbacks arriving before this call were not lost. Tokens already
+     * completed by a callback are not polled.
+     *
+     * @param registered the futures those tokens were registered with
+     */
+    public List<CompletableFuture<SubmissionResult>> poll(List<String> tokens,
+                                                          Map<String, CompletableFuture<SubmissionResult>> registered,
+                                                          ExecutionContext context) {
+        PollLoop loop = new PollLoop(context);
+        List<CompletableFuture<SubmissionResult>> futures = new ArrayList<>(tokens.size());
+
+        for (String token : tokens) {
+            if (!StringUtils.hasText(token)) {
+                futures.add(CompletableFuture.failedFuture(
+                        new Judge0Service.Judge0Exception("Submission has no token")));
+                continue;
+            }
+            CompletableFuture<SubmissionResult> future = registered.get(token);
+            if (future == null) {
+                future = loop.outstanding.computeIfAbsent(token, pendingSubmissions::register);
+            } else if (!future.isDone()) {
+                loop.outstanding.put(token, future);
+            }
+            futures.add(future);
+        }
+
+        if (!loop.outstanding.isEmpty()) {
+            if (context.hasDeadline()) {
+                loop.expiry = TimerHandoff.schedule(timer, taskExecutor, () -> expire(loop), context.remainingMillis());
+            }
+            scheduleRound(loop, properties.isCallbackEnabled()
+                    ? properties.getCallbackTimeoutMs()
+                    : delayEstimator.jitter(delayEstimator.firstDelayMs(context.problemId())));
+        }
+        return futures;
+    }
+
+    private void expire(PollLoop loop) {
+        loop.outstanding.forEach((token, future) -> future.completeExceptionally(
+                new DeadlineExceededException("Deadline passed while polling token: " + token)));
+    }
+
+    private void pollRound(PollLoop loop) {
+        int maxAttempts = properties.getMaxPollingAttempts();
+        int attempt = ++loop.attempts;
+        loop.queued.set(false);
+
+        fetchOnce(loop, attempt).whenComplete((v, e) -> {
+            loop.outstanding.values().removeIf(CompletableFuture::isDone);
+            if (loop.outstanding.isEmpty()) {
+                log.debug("All tokens completed after {} polling rounds", attempt);
+                finish(loop);
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                log.warn("Max polling attempts ({}) exceeded for {} tokens", maxAttempts, loop.outstanding.size());
+                failAll(loop.outstanding, "Max polling attempts (" + maxAttempts + ") exceeded for token: ");
+                finish(loop);
+                return;
+            }
+
+            long delay;
+            if (e != null) {
+                log.error("Batch polling attempt {}/{} failed for {} tokens",
+                        attempt, maxAttempts, loop.outstanding.size(), e);
+                delay = Math.min(
+                        (long) (properties.getPollingIntervalMs() * Math.pow(1.5, attempt / 5)),
+                        10000L // Max 10 seconds
+                );
+            } else {
+                loop.stepMs = delayEstimator.nextDelayMs(loop.context.problemId(), loop.stepMs, loop.queued.get());
+                delay = delayEstimator.jitter(loop.stepMs);
+            }
+            scheduleRound(loop, delay);
+        });
+    }
+
+    // A round can wait on the Judge0 rate limiter, so it runs on the task executor rather than the timer thread
+    private void scheduleRound(PollLoop loop, long delayMs) {
+        TimerHandoff.schedule(timer, taskExecutor, () -> pollRound(loop), delayMs);
+    }
+
+    private void finish(PollLoop loop) {
+        ScheduledFuture<?> expiry = loop.expiry;
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+    }
+
+    private CompletableFuture<Void> fetchOnce(PollLoop loop, int round) {
+        Map<String, CompletableFuture<SubmissionResult>> outstanding = loop.outstanding;
+        // Drop tokens a callback has completed since the last round
+        outstanding.values().removeIf(CompletableFuture::isDone);
+        List<String> pending = new ArrayList<>(outstanding.keySet());
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+
+        for (int from = 0; from < pending.size(); from += MAX_TOKENS_PER_REQUEST) {
+            List<String> chunk = pending.subList(from, Math.min(from + MAX_TOKENS_PER_REQUEST, pending.size()));
+            long startTime = System.currentTimeMillis();
+            ExecutionTrace.Stage stage = loop.context.stage("poll");
+
+            requests.add(judge0Service.getSubmissionResults(chunk).handle((results, e) -> {
+                // Ended before any future completes, so the round is part of the verdict's trace
+                stage.end(e);
+                if (e != null) {
+                    Throwable cause = Judge0Service.unwrap(e);
+                    metricsService.recordApiError(ENDPOINT, "GET",
+                            cause instanceof Exception ex ? ex : new RuntimeException(cause));
+                    throw new Judge0Service.Judge0Exception(cause.getMessage(), cause);
+                }
+                metricsService.recordApiCall(ENDPOINT, "GET", 200, System.currentTimeMillis() - startTime);
+
+                for (int i = 0; i < chunk.size() && i < results.size(); i++) {
+                    SubmissionResult result = results.get(i);
+                    if (Judge0Service.isProcessingComplete(result)) {
+                        CompletableFuture<SubmissionResult> future = outstanding.remove(chunk.get(i));
+                        if (future != null && !future.isDone()) {
+                            recordResultMetrics(result, loop, round);
+                            future.complete(result);
+                        }
+                    } else if (Judge0Service.isQueued(result)) {
+                        loop.queued.set(true);
+                    }
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]));
+    }
+
+    // Judge0 reports when a submission was created and finished and how long it ran; the rest was queueing
+    private void recordResultMetrics(SubmissionResult result, PollLoop loop, int round) {
+        metricsService.recordPollAttempts(round);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loop.startedAt);
+        if (result.getCreatedAt() == null || result.getFinishedAt() == null || result.getWallTime() == null) {
+            delayEstimator.record(loop.context.problemId(), elapsedMillis, -1);
+            return;
+        }
+        try {
+            long totalMillis = Duration.between(Instant.parse(result.getCreatedAt()),
+                    Instant.parse(result.getFinishedAt())).toMillis();
+            long runMillis = (long) (result.getWallTime() * 1000);
+            long queueMillis = Math.max(0, totalMillis - runMillis);
+            metricsService.recordJudge0Times(queueMillis, runMillis);
+            delayEstimator.record(loop.context.problemId(), totalMillis, runMillis);
+            loop.context.record("judge0_queue", TimeUnit.MILLISECONDS.toNanos(queueMillis));
+            loop.context.record("judge0_run", TimeUnit.MILLISECONDS.toNanos(runMillis));
+        } catch (DateTimeParseException e) {
+            log.debug("Unexpected Judge0 timestamps {} / {}", result.getCreatedAt(), result.getFinishedAt());
+            delayEstimator.record(loop.context.problemId(), elapsedMillis, -1);
+        }
+    }
+
+    private void failAll(Map<String, CompletableFuture<SubmissionResult>> outstanding, String message) {
+        outstanding.forEach((token, future) ->
+                future.completeExceptionally(new Judge0Service.Judge0Exception(message + token)));
+        outstanding.clear();
+    }
+
+    // One polling loop; attempts and stepMs are only touched by the round in progress
+    private static final class PollLoop {
+        final Map<String, CompletableFuture<SubmissionResult>> outstanding = new ConcurrentHashMap<>();
+        final ExecutionContext context;
+        final long startedAt = System.nanoTime();
+        // Whether some token was still "In Queue" in the current round
+        final AtomicBoolean queued = new AtomicBoolean();
+        volatile ScheduledFuture<?> expiry;
+        int attempts;
+        long stepMs;
+
+        PollLoop(ExecutionContext context) {
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.ExecutionTrace;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResponse;
+import com.codeexecution.model.SubmissionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs submissions on Judge0: batches shaped by the
+ * {@link AdaptiveBatchController}, then one poll loop for every token.
+ * <p>
+ * Kept apart from {@link Judge0Service} so that calls to
+ * {@code submitBatch} go through its circuit breaker and rate limiter
+ * proxies instead of being self-invocations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Judge0ExecutionBackend implements ExecutionBackend {
+    static final String NAME = "judge0";
+    private static final String SUBMIT_ENDPOINT = "/submissions/batch?wait=true";
+
+    private final Judge0Service judge0Service;
+    private final Judge0BatchPoller batchPoller;
+    private final AdaptiveBatchController batchController;
+    private final MetricsService metricsService;
+    private final SubmissionScheduler submissionScheduler;
+    private final PendingSubmissionRegistry pendingSubmissions;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public CompletableFuture<List<CompletableFuture<SubmissionResult>>> execute(List<SubmissionRequest> requests,
+                                                                               ExecutionContext context) {
+        // Submit in batches, shaped by what Judge0 has recently coped with
+        AdaptiveBatchController.BatchPlan plan = batchController.plan();
+        List<List<SubmissionRequest>> batches = CodeExecutionService.partitionList(requests, plan.batchSize());
+
+        // Tokens are registered as their batch is accepted: a callback may arrive while later batches still wait
+        Map<String, CompletableFuture<SubmissionResult>> registered = new ConcurrentHashMap<>();
+
+        // At most plan.concurrency() batches are in flight: batch i starts once batch i - concurrency is done
+        List<CompletableFuture<List<SubmissionResponse>>> batchFutures = new ArrayList<>(batches.size());
+        for (int i = 0; i < batches.size(); i++) {
+            List<SubmissionRequest> batch = batches.get(i);
+            CompletableFuture<List<SubmissionResponse>> submitted = i < plan.concurrency()
+                    ? submit(batch, context)
+                    : batchFutures.get(i - plan.concurrency())
+                            .handle((responses, e) -> null)
+                            .thenCompose(v -> submit(batch, context));
+            batchFutures.add(submitted.thenApply(responses -> {
+                responses.stream()
+                        .map(Judge0ExecutionBackend::tokenOf)
+                        .filter(Objects::nonNull)
+                        .forEach(token -> registered.computeIfAbsent(token, pendingSubmissions::register));
+                return responses;
+            }));
+        }
+
+        // Poll every token of this submission in a single loop
+        return CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0])).handle((v, e) -> {
+            if (e != null) {
+                // Nobody will wait for the accepted batches' results
+                registered.values().forEach(future -> future.cancel(false));
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            }
+            List<String> tokens = batchFutures.stream()
+                    .flatMap(future -> future.join().stream())
+                    .map(Judge0ExecutionBackend::tokenOf)
+                    .toList();
+
+            return batchPoller.poll(tokens, registered, context);
+        });
+    }
+
+    // Rejected submissions have no result to poll for
+    private static String tokenOf(SubmissionResponse response) {
+        return response.getError() == null ? response.getToken() : null;
+    }
+
+    /**
+     * Submits one batch as-is, without polling, once the
+     * {@link SubmissionScheduler} gives it a slot.
+     */
+    public CompletableFuture<List<SubmissionResponse>> submit(List<SubmissionRequest> requests,
+                                                              ExecutionContext context) {
+        // Requests are materialized only when the batch goes out, which keeps lazily loaded test data off the heap
+        return submissionScheduler.schedule(context, requests.size(), () -> submitNow(List.copyOf(requests), context));
+    }
+
+    private CompletableFuture<List<SubmissionResponse>> submitNow(List<SubmissionRequest> requests,
+                                                                 ExecutionContext context) {
+        long startTime = System.currentTimeMillis();
+        ExecutionTrace.Stage stage = context.stage("submit_batch");
+        metricsService.recordBatchSubmitted(requests.size());
+
+        // Submit batch to Judge0 without holding an executor thread
+        return judge0Service.submitBatch(requests)
+                .whenComplete((responses, e) -> {
+                    stage.end(e);
+                    if (e == null) {
+                        long duration = System.currentTimeMillis() - startTime;
+                        metricsService.recordApiCall(SUBMIT_ENDPOINT, "POST", 200, duration);
+                    } else {
+                        Throwable cause = Judge0Service.unwrap(e);
+                        metricsService.recordApiError(SUBMIT_ENDPOINT, "POST",
+                                cause instanceof Exception ex ? ex : new RuntimeException(cause));
+                    }
+                });
+    }
+}
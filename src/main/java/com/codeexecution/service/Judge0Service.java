@@ -1,25 +1,43 @@
 package com.codeexecution.service;
 
 import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.Base64Text;
+import com.codeexecution.model.SubmissionBatchResult;
 import com.codeexecution.model.SubmissionRequest;
 import com.codeexecution.model.SubmissionResponse;
 import com.codeexecution.model.SubmissionResult;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @Service
@@ -27,125 +45,188 @@ import java.util.concurrent.TimeUnit;
 @RateLimiter(name = "judge0RateLimiter")
 public class Judge0Service {
     private static final int JAVA_LANGUAGE_ID = 62;
+    private static final String GZIP = "gzip";
+    public static final String CALLBACK_SECRET_PARAM = "secret";
+    // Judge0's defaults leave out the timestamps and wall time that split queueing from running
+    private static final String RESULT_FIELDS = "token,stdout,stderr,compile_output,message,exit_code,exit_signal,"
+            + "status,created_at,finished_at,time,wall_time,memory";
 
-    private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient judge0HttpClient;
     private final Judge0Properties properties;
     private final ObjectMapper objectMapper;
-
-    public SubmissionResponse submitSubmission(SubmissionRequest request) {
-        return submitBatch(Collections.singletonList(request)).get(0);
-    }
+    private final AdaptiveBatchController batchController;
 
     @CircuitBreaker(name = "judge0CircuitBreaker", fallbackMethod = "fallbackHandler")
-    public List<SubmissionResponse> submitBatch(List<SubmissionRequest> requests) {
+    public CompletableFuture<List<SubmissionResponse>> submitBatch(List<SubmissionRequest> requests) {
         requests.forEach(this::validateSubmissionRequest);
 
-        try {
-            // Wrap requests in a map to match Judge0's expected format
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("submissions", requests);
-
-            String requestJson = objectMapper.writeValueAsString(requestBody);
-            log.debug("Submitting batch to Judge0: {}", redactSensitive(requestJson));
+        String url = String.format("%s/submissions/batch?base64_encoded=%b",
+                properties.getBaseUrl(),
+                properties.isBase64Encoded());
 
-            String url = String.format("%s/submissions/batch?base64_encoded=%b",
-                    properties.getBaseUrl(),
-                    properties.isBase64Encoded());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
-
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-
-            // Judge0 batch response is a list of maps like [{ token: "..." }, ...]
-            return objectMapper.readValue(
-                    response.getBody(),
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, SubmissionResponse.class)
-            );
-        } catch (Exception e) {
-            log.error("Error submitting batch to Judge0: {}", e.getMessage(), e);
-            throw new Judge0Exception("Failed to submit batch to Judge0: " + e.getMessage(), e);
-        }
-    }
-
-
-    public SubmissionResult getSubmissionResult(String token) {
+        AsyncRequestProducer request;
         try {
-            String url = String.format("%s/submissions/%s?base64_encoded=%b",
-                    properties.getBaseUrl(),
-                    token,
-                    properties.isBase64Encoded());
-
-            ResponseEntity<SubmissionResult> response = restTemplate.getForEntity(
-                    url, SubmissionResult.class);
-
-            return response.getBody();
-        } catch (Exception e) {
-            log.error("Error getting submission result for token {}: {}", token, e.getMessage(), e);
-            throw new Judge0Exception("Failed to get submission result: " + e.getMessage(), e);
+            request = withAcceptEncoding(AsyncRequestBuilder.post(url))
+                    .setEntity(new SubmissionBatchEntityProducer(batchWriter(), requests, properties.isGzipRequests()))
+                    .build();
+        } catch (IOException e) {
+            log.error("Error serializing batch for Judge0: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(
+                    new Judge0Exception("Failed to submit batch to Judge0: " + e.getMessage(), e));
         }
-    }
-
-    public CompletableFuture<SubmissionResult> pollSubmissionResult(String token) {
-        return CompletableFuture.supplyAsync(() -> {
-            int attempts = 0;
-            int maxAttempts = properties.getMaxPollingAttempts();
-            long pollInterval = properties.getPollingIntervalMs();
-
-            while (attempts < maxAttempts) {
-                try {
-                    SubmissionResult result = getSubmissionResult(token);
-                    if (isProcessingComplete(result)) {
-                        log.debug("Submission {} completed after {} attempts", token, attempts + 1);
-                        return result;
+        log.debug("Submitting batch of {} submissions to Judge0", requests.size());
+
+        long startTime = System.currentTimeMillis();
+
+        // Judge0 batch response is a list of maps like [{ token: "..." }, ...]
+        return execute(request, "POST /submissions/batch")
+                .thenApply(response -> this.<List<SubmissionResponse>>readValue(response,
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, SubmissionResponse.class)))
+                .whenComplete((responses, ex) -> {
+                    if (ex == null) {
+                        batchController.onSuccess(System.currentTimeMillis() - startTime);
+                    } else {
+                        batchController.onFailure(unwrap(ex));
                     }
+                })
+                .exceptionallyCompose(ex -> {
+                    Throwable e = unwrap(ex);
+                    log.error("Error submitting batch to Judge0: {}", e.getMessage(), e);
+                    return CompletableFuture.failedFuture(
+                            new Judge0Exception("Failed to submit batch to Judge0: " + e.getMessage(), e));
+                });
+    }
 
-                    if (attempts > 0 && attempts % 5 == 0) {
-                        log.debug("Polling attempt {}/{} for token {}", attempts, maxAttempts, token);
+    /**
+     * Fetches the current state of several submissions with a single
+     * GET /submissions/batch request. Results come back in token order.
+     */
+    public CompletableFuture<List<SubmissionResult>> getSubmissionResults(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        String url = String.format("%s/submissions/batch?tokens=%s&base64_encoded=%b&fields=%s",
+                properties.getBaseUrl(),
+                String.join(",", tokens),
+                properties.isBase64Encoded(),
+                RESULT_FIELDS);
+
+        return execute(SimpleRequestBuilder.get(url).build())
+                .thenApply(response -> {
+                    SubmissionBatchResult result = readValue(response, objectMapper.constructType(SubmissionBatchResult.class));
+                    if (result == null || result.getSubmissions() == null) {
+                        throw new Judge0Exception("Empty batch result for tokens: " + tokens);
                     }
+                    return result.getSubmissions();
+                })
+                .exceptionallyCompose(ex -> {
+                    Throwable e = unwrap(ex);
+                    log.error("Error getting batch submission results for {} tokens: {}", tokens.size(), e.getMessage(), e);
+                    return CompletableFuture.failedFuture(
+                            new Judge0Exception("Failed to get batch submission results: " + e.getMessage(), e));
+                });
+    }
 
-                    TimeUnit.MILLISECONDS.sleep(pollInterval);
-                    attempts++;
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Polling interrupted for token: {}", token, e);
-                    throw new Judge0Exception("Polling interrupted for token: " + token, e);
-                } catch (Exception e) {
-                    log.error("Polling attempt {}/{} failed for token {}",
-                            attempts, maxAttempts, token, e);
-                    attempts++;
-
-                    try {
-                        long backoffTime = Math.min(
-                            (long) (pollInterval * Math.pow(1.5, attempts / 5)),
-                            10000L // Max 10 seconds
-                        );
-                        TimeUnit.MILLISECONDS.sleep(backoffTime);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new Judge0Exception("Backoff interrupted", ie);
-                    }
-                }
+    /**
+     * GET /about, the cheapest Judge0 request. Used at warm-up to open
+     * pooled connections before the first submission needs them.
+     */
+    public CompletableFuture<String> getAbout() {
+        return execute(SimpleRequestBuilder.get(properties.getBaseUrl() + "/about").build()).thenApply(response -> {
+            try (InputStream body = body(response)) {
+                return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new Judge0Exception("Failed to read Judge0 response: " + e.getMessage(), e);
             }
-
-            String errorMsg = String.format("Max polling attempts (%d) exceeded for token: %s",
-                    maxAttempts, token);
-            log.warn(errorMsg);
-            throw new Judge0Exception(errorMsg);
         });
     }
 
     // Fallback method for circuit breaker
-    public List<SubmissionResponse> fallbackHandler(List<SubmissionRequest> requests, Throwable t) {
+    public CompletableFuture<List<SubmissionResponse>> fallbackHandler(List<SubmissionRequest> requests, Throwable t) {
         log.error("Judge0 service unavailable, using fallback", t);
         SubmissionResponse fallback = new SubmissionResponse();
         fallback.setToken("service-unavailable");
         fallback.setError("Judge0 service is temporarily unavailable");
         // Return a fallback response for each submission
-        return Collections.nCopies(requests.size(), fallback);
+        return CompletableFuture.completedFuture(Collections.nCopies(requests.size(), fallback));
+    }
+
+    private CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+        if (properties.isGzipResponses()) {
+            request.setHeader(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        return execute(SimpleRequestProducer.create(request), request.getMethod() + " " + request.getPath());
+    }
+
+    /**
+     * Sends a request without blocking and completes with the response,
+     * or exceptionally for transport errors and non-2xx responses.
+     */
+    private CompletableFuture<SimpleHttpResponse> execute(AsyncRequestProducer request, String description) {
+        CompletableFuture<SimpleHttpResponse> future = new CompletableFuture<>();
+        judge0HttpClient.execute(request, SimpleResponseConsumer.create(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                if (response.getCode() >= 200 && response.getCode() < 300) {
+                    future.complete(response);
+                } else {
+                    future.completeExceptionally(new Judge0Exception(String.format(
+                            "%s returned HTTP %d", description, response.getCode()), response.getCode()));
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                future.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    private AsyncRequestBuilder withAcceptEncoding(AsyncRequestBuilder builder) {
+        return properties.isGzipResponses() ? builder.setHeader(HttpHeaders.ACCEPT_ENCODING, GZIP) : builder;
+    }
+
+    private ObjectWriter batchWriter() {
+        return objectMapper.writerFor(SubmissionRequest.class)
+                .withAttribute(Base64Text.ATTRIBUTE, properties.isBase64Encoded());
+    }
+
+    /**
+     * Writes the POST /submissions/batch body for {@code requests} to
+     * {@code out} the way {@link #submitBatch} streams it, and closes
+     * {@code out}.
+     */
+    void writeBatch(List<SubmissionRequest> requests, OutputStream out) throws IOException {
+        new SubmissionBatchEntityProducer.BatchWriter(batchWriter(), requests, out).writeAll();
+    }
+
+    static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    // Parsed from the bytes as received, never as an intermediate String
+    private <T> T readValue(SimpleHttpResponse response, JavaType type) {
+        try (InputStream body = body(response)) {
+            return objectMapper.readerFor(type)
+                    .withAttribute(Base64Text.ATTRIBUTE, properties.isBase64Encoded())
+                    .readValue(body);
+        } catch (Exception e) {
+            throw new Judge0Exception("Failed to parse Judge0 response: " + e.getMessage(), e);
+        }
     }
 
+    private static InputStream body(SimpleHttpResponse response) throws IOException {
+        byte[] bytes = response.getBodyBytes();
+        InputStream body = new ByteArrayInputStream(bytes == null ? new byte[0] : bytes);
+        Header encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding != null && GZIP.equalsIgnoreCase(encoding.getValue()) ? new GZIPInputStream(body) : body;
+    }
 
     private void validateSubmissionRequest(SubmissionRequest request) {
         if (request == null) {
@@ -156,33 +237,54 @@ public class Judge0Service {
             request.setLanguageId(JAVA_LANGUAGE_ID);
         }
 
-        if (!StringUtils.hasText(request.getSourceCode())) {
+        // Multi-file programs carry their sources in additional_files
+        if (!StringUtils.hasText(request.getSourceCode()) && !StringUtils.hasText(request.getAdditionalFiles())) {
             throw new IllegalArgumentException("source_code is required");
         }
+
+        if (properties.isCallbackEnabled() && request.getCallbackUrl() == null
+                && StringUtils.hasText(properties.getCallbackUrl())) {
+            request.setCallbackUrl(UriComponentsBuilder.fromUriString(properties.getCallbackUrl())
+                    .queryParam(CALLBACK_SECRET_PARAM, properties.getCallbackSecret())
+                    .toUriString());
+        }
     }
 
-    private boolean isProcessingComplete(SubmissionResult result) {
+    static boolean isProcessingComplete(SubmissionResult result) {
         return result != null &&
                 result.getStatus() != null &&
                 result.getStatus().getId() != null &&
                 result.getStatus().getId() > 2;
     }
 
-    private String redactSensitive(String json) {
-        final int MAX_LENGTH = 500;
-        if (json.length() > MAX_LENGTH) {
-            return json.substring(0, MAX_LENGTH) + "... [truncated]";
-        }
-        return json;
+    // Status 1, "In Queue": not picked up by a worker yet
+    static boolean isQueued(SubmissionResult result) {
+        return result != null &&
+                result.getStatus() != null &&
+                result.getStatus().getId() != null &&
+                result.getStatus().getId() == 1;
     }
 
     public static class Judge0Exception extends RuntimeException {
+        // HTTP status Judge0 answered with, or -1 if no response was received
+        private final int statusCode;
+
         public Judge0Exception(String message) {
+            this(message, -1);
+        }
+
+        public Judge0Exception(String message, int statusCode) {
             super(message);
+            this.statusCode = statusCode;
         }
 
         public Judge0Exception(String message, Throwable cause) {
             super(message, cause);
+            this.statusCode = cause instanceof Judge0Exception judge0Exception ? judge0Exception.statusCode : -1;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
         }
     }
 }
@@ -0,0 +1,347 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.ExecutionBackendProperties;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs Java submissions without Judge0: the source is compiled in memory
+ * with {@link JavaCompiler} and every test case runs in one of a pool of
+ * pre-warmed child JVMs, each capped by heap size and CPU/wall time.
+ * <p>
+ * There is no sandbox beyond those limits, so this backend is only meant
+ * for trusted code such as reference solutions. Memory is reported as the
+ * child's used heap after the run, not a peak.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalJavaExecutionBackend implements ExecutionBackend {
+    static final String NAME = "local";
+
+    private static final String WORKER_SOURCE = "local/LocalWorker.java";
+    private static final String MAIN_CLASS = "Main";
+    private static final String WARM_UP_SOURCE = """
+            public class Main {
+                public static void main(String[] args) {
+                    java.util.Scanner in = new java.util.Scanner(System.in);
+                    System.out.println(in.hasNextLine() ? in.nextLine() : "");
+                }
+            }
+            """;
+    private static final SubmissionResult.Status ACCEPTED = new SubmissionResult.Status(3, "Accepted");
+    private static final SubmissionResult.Status WRONG_ANSWER = new SubmissionResult.Status(4, "Wrong Answer");
+    private static final SubmissionResult.Status TIME_LIMIT_EXCEEDED = new SubmissionResult.Status(5, "Time Limit Exceeded");
+    private static final SubmissionResult.Status COMPILATION_ERROR = new SubmissionResult.Status(6, "Compilation Error");
+    private static final SubmissionResult.Status RUNTIME_ERROR = new SubmissionResult.Status(11, "Runtime Error (NZEC)");
+    private static final SubmissionResult.Status INTERNAL_ERROR = new SubmissionResult.Status(13, "Internal Error");
+
+    private final ExecutionBackendProperties properties;
+
+    private final BlockingQueue<LocalJvmWorker> idleWorkers = new LinkedBlockingQueue<>();
+    private JavaCompiler compiler;
+    private Path workerClasses;
+    // Run once by every new worker, initial or replacement, so it takes its first job warm
+    private Map<String, byte[]> warmUpClasses;
+    private ExecutorService runExecutor;
+    private ExecutorService spawnExecutor;
+    private ScheduledExecutorService timer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!properties.isLocalUsed()) {
+            return;
+        }
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Local execution needs a JDK, but no Java compiler is available");
+        }
+        workerClasses = compileWorker();
+
+        ExecutionBackendProperties.Local local = properties.getLocal();
+        runExecutor = Executors.newFixedThreadPool(local.getPoolSize(), Thread.ofPlatform().name("local-exec-", 0).factory());
+        spawnExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("local-spawn").daemon().factory());
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("local-timer").daemon().factory());
+
+        // Warming also loads the compiler, which is slow the first time
+        warmUpClasses = compile(WARM_UP_SOURCE).classes();
+        for (int i = 0; i < local.getPoolSize(); i++) {
+            spawnExecutor.execute(this::spawnWorker);
+        }
+        log.info("Local execution backend started with {} worker JVMs", local.getPoolSize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (runExecutor == null) {
+            return;
+        }
+        runExecutor.shutdownNow();
+        spawnExecutor.shutdownNow();
+        timer.shutdownNow();
+        idleWorkers.forEach(LocalJvmWorker::close);
+        FileSystemUtils.deleteRecursively(workerClasses.toFile());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public CompletableFuture<List<CompletableFuture<SubmissionResult>>> execute(List<SubmissionRequest> requests,
+                                                                               ExecutionContext context) {
+        if (runExecutor == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Local execution backend is not enabled; set execution.backend or execution.local-problems"));
+        }
+        // Requests usually share one source, so compile each distinct source once
+        Map<String, Compilation> compilations = new ConcurrentHashMap<>();
+        List<CompletableFuture<SubmissionResult>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        // poolSize lanes take requests in order, each fetched only when a lane is free to run it.
+        // A lane re-queues itself after every run so concurrent submissions share the pool fairly
+        AtomicInteger next = new AtomicInteger();
+        Runnable lane = new Runnable() {
+            @Override
+            public void run() {
+                int index = next.getAndIncrement();
+                if (index >= requests.size()) {
+                    return;
+                }
+                CompletableFuture<SubmissionResult> result = results.get(index);
+                try {
+                    SubmissionRequest request = requests.get(index);
+                    Compilation compiled = compilations.computeIfAbsent(request.getSourceCode(),
+                            LocalJavaExecutionBackend.this::compile);
+                    result.complete(compiled.succeeded()
+                            ? LocalJavaExecutionBackend.this.run(compiled.classes(), request)
+                            : compilationError(compiled.output()));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+                runExecutor.execute(this);
+            }
+        };
+        for (int i = 0; i < Math.min(properties.getLocal().getPoolSize(), requests.size()); i++) {
+            runExecutor.execute(lane);
+        }
+        return CompletableFuture.completedFuture(results);
+    }
+
+    private SubmissionResult run(Map<String, byte[]> classes, SubmissionRequest request) {
+        ExecutionBackendProperties.Local local = properties.getLocal();
+        double cpuLimit = request.getCpuTimeLimit() != null ? request.getCpuTimeLimit() : local.getCpuTimeLimit();
+        double wallLimit = request.getWallTimeLimit() != null ? request.getWallTimeLimit() : cpuLimit * 2 + 1;
+
+        LocalJvmWorker worker = idleWorkers.poll();
+        if (worker == null || !worker.isAlive()) {
+            // Pool ran dry (a replacement is still starting), so pay for a cold start
+            try {
+                worker = LocalJvmWorker.start(javaCommand(), local.getJvmOptions(), local.getMemoryLimitMb(), workerClasses);
+            } catch (IOException e) {
+                log.error("Could not start local worker JVM", e);
+                return SubmissionResult.builder().status(INTERNAL_ERROR).message(e.getMessage()).build();
+            }
+        }
+
+        LocalJvmWorker.Reply reply = worker.run(classes, request.getStdin(),
+                (long) (cpuLimit * 1000), (long) (wallLimit * 1000), timer);
+        release(worker, reply);
+        return toSubmissionResult(reply, request.getExpectedOutput(), wallLimit);
+    }
+
+    private void release(LocalJvmWorker worker, LocalJvmWorker.Reply reply) {
+        boolean reusable = worker.isAlive()
+                && (reply.status() == LocalJvmWorker.OK || reply.status() == LocalJvmWorker.RUNTIME_ERROR)
+                && worker.getRuns() < properties.getLocal().getRunsPerWorker();
+        if (reusable) {
+            idleWorkers.offer(worker);
+        } else {
+            worker.close();
+            spawnExecutor.execute(this::spawnWorker);
+        }
+    }
+
+    private void spawnWorker() {
+        ExecutionBackendProperties.Local local = properties.getLocal();
+        try {
+            LocalJvmWorker worker = LocalJvmWorker.start(javaCommand(), local.getJvmOptions(), local.getMemoryLimitMb(), workerClasses);
+            worker.run(warmUpClasses, "warm-up", 5000, 10000, timer);
+            idleWorkers.offer(worker);
+        } catch (IOException e) {
+            log.error("Could not start local worker JVM", e);
+        }
+    }
+
+    private SubmissionResult toSubmissionResult(LocalJvmWorker.Reply reply, String expectedOutput, double wallLimit) {
+        SubmissionResult.Status status = switch (reply.status()) {
+            case LocalJvmWorker.OK -> matches(reply.stdout(), expectedOutput) ? ACCEPTED : WRONG_ANSWER;
+            case LocalJvmWorker.RUNTIME_ERROR -> RUNTIME_ERROR;
+            case LocalJvmWorker.TIME_LIMIT_EXCEEDED -> TIME_LIMIT_EXCEEDED;
+            case LocalJvmWorker.EXIT -> reply.exitCode() != null && reply.exitCode() == 0
+                    ? matches(reply.stdout(), expectedOutput) ? ACCEPTED : WRONG_ANSWER
+                    : RUNTIME_ERROR;
+            default -> reply.wallNanos() >= wallLimit * 1e9 ? TIME_LIMIT_EXCEEDED : INTERNAL_ERROR;
+        };
+        Integer exitCode = switch (reply.status()) {
+            case LocalJvmWorker.OK -> 0;
+            case LocalJvmWorker.RUNTIME_ERROR -> 1;
+            default -> reply.exitCode();
+        };
+
+        return SubmissionResult.builder()
+                .stdout(reply.stdout())
+                .stderr(StringUtils.hasLength(reply.stderr()) ? reply.stderr() : null)
+                .message(StringUtils.hasLength(reply.message()) ? reply.message() : null)
+                .status(status)
+                .exitCode(exitCode)
+                .time(reply.cpuNanos() / 1e9)
+                .wallTime(reply.wallNanos() / 1e9)
+                .memory((double) reply.memoryKb())
+                .build();
+    }
+
+    private SubmissionResult compilationError(String output) {
+        return SubmissionResult.builder()
+                .status(COMPILATION_ERROR)
+                .compileOutput(output)
+                .build();
+    }
+
+    // Same rule as the compile-once harness: surrounding whitespace is ignored
+    private boolean matches(String output, String expectedOutput) {
+        return expectedOutput == null || output.strip().equals(expectedOutput.strip());
+    }
+
+    Compilation compile(String sourceCode) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+        Map<String, byte[]> classes = new HashMap<>();
+
+        try (JavaFileManager fileManager = new InMemoryFileManager(standardFileManager, classes)) {
+            // Programs only see the JDK, not this application's classpath
+            standardFileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+            boolean succeeded = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-proc:none", "-Xlint:none"), null,
+                    List.of(new SourceFile(MAIN_CLASS, sourceCode))).call();
+
+            String output = diagnostics.getDiagnostics().stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                    .map(diagnostic -> String.format("%s.java:%d: error: %s", MAIN_CLASS,
+                            diagnostic.getLineNumber(), diagnostic.getMessage(Locale.ROOT)))
+                    .collect(Collectors.joining("\n"));
+            return new Compilation(succeeded, classes, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path compileWorker() throws IOException {
+        Path directory = Files.createTempDirectory("local-worker");
+        Path source = directory.resolve("LocalWorker.java");
+        try (var in = new ClassPathResource(WORKER_SOURCE).getInputStream()) {
+            Files.write(source, in.readAllBytes());
+        }
+        int exitCode = compiler.run(null, null, null, "-d", directory.toString(), source.toString());
+        if (exitCode != 0) {
+            throw new IllegalStateException("Could not compile " + WORKER_SOURCE);
+        }
+        return directory;
+    }
+
+    private String javaCommand() {
+        String configured = properties.getLocal().getJavaCommand();
+        return StringUtils.hasText(configured)
+                ? configured
+                : Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    record Compilation(boolean succeeded, Map<String, byte[]> classes, String output) {
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classes;
+
+        InMemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
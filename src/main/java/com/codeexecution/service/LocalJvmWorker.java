@@ -0,0 +1,128 @@
+package com.codeexecution.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parent side of one child JVM running {@code local/LocalWorker.java}; see
+ * that file for the wire format. Not thread safe: a worker runs one job at
+ * a time and is handed out by {@link LocalJavaExecutionBackend}'s pool.
+ */
+class LocalJvmWorker implements Closeable {
+    static final int OK = 0;
+    static final int RUNTIME_ERROR = 1;
+    static final int TIME_LIMIT_EXCEEDED = 2;
+    static final int EXIT = 3;
+    // No reply: the JVM died or was killed at the wall-time limit
+    static final int CRASHED = -1;
+
+    private final Process process;
+    private final DataOutputStream jobs;
+    private final DataInputStream replies;
+    private int runs;
+
+    private LocalJvmWorker(Process process) {
+        this.process = process;
+        this.jobs = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.replies = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    static LocalJvmWorker start(String javaCommand, List<String> jvmOptions, int memoryLimitMb, Path workerClasses)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.add("-Xmx" + memoryLimitMb + "m");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(workerClasses.toString());
+        command.add("LocalWorker");
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        return new LocalJvmWorker(process);
+    }
+
+    /**
+     * Runs {@code Main} from {@code classes} once. The JVM is killed if no
+     * reply arrives within {@code wallLimitMillis}.
+     */
+    Reply run(Map<String, byte[]> classes, String stdin, long cpuLimitMillis, long wallLimitMillis,
+              ScheduledExecutorService timer) {
+        runs++;
+        long start = System.nanoTime();
+        ScheduledFuture<?> killer = timer.schedule(process::destroyForcibly, wallLimitMillis, TimeUnit.MILLISECONDS);
+        try {
+            jobs.writeInt(classes.size());
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jobs.writeUTF(entry.getKey());
+                jobs.writeInt(entry.getValue().length);
+                jobs.write(entry.getValue());
+            }
+            byte[] input = stdin == null ? new byte[0] : stdin.getBytes(StandardCharsets.UTF_8);
+            jobs.writeInt(input.length);
+            jobs.write(input);
+            jobs.writeLong(cpuLimitMillis);
+            jobs.flush();
+
+            int status = replies.readInt();
+            String message = replies.readUTF();
+            String stdout = readString();
+            String stderr = readString();
+            long cpuNanos = replies.readLong();
+            long wallNanos = replies.readLong();
+            long memoryKb = replies.readLong();
+            Integer exitCode = status == EXIT ? waitForExit() : null;
+            return new Reply(status, message, stdout, stderr, cpuNanos, wallNanos, memoryKb, exitCode);
+        } catch (IOException e) {
+            long wallNanos = System.nanoTime() - start;
+            return new Reply(CRASHED, e.getMessage(), "", "", 0, wallNanos, 0, waitForExit());
+        } finally {
+            killer.cancel(false);
+        }
+    }
+
+    int getRuns() {
+        return runs;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[replies.readInt()];
+        replies.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Integer waitForExit() {
+        try {
+            return process.waitFor(5, TimeUnit.SECONDS) ? process.exitValue() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    record Reply(int status, String message, String stdout, String stderr, long cpuNanos, long wallNanos,
+                 long memoryKb, Integer exitCode) {
+    }
+}
@@ -1,21 +1,43 @@
 package com.codeexecution.service;
 
+import com.codeexecution.config.ProblemMetricsProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Records the service's metrics. Meters are resolved once and cached, so
+ * recording on the hot path is a map lookup rather than a registry lookup,
+ * and timers publish histogram buckets that Prometheus can aggregate across
+ * instances instead of per-instance percentiles. The problem_id tag is
+ * bounded by {@code metrics.problems.*}.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MetricsService {
-    
+    private static final String OTHER_PROBLEM = "other";
+
     private final MeterRegistry meterRegistry;
+    private final ProblemMetricsProperties problemProperties;
+    private final Map<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+    private final Set<String> taggedProblems = ConcurrentHashMap.newKeySet();
     
     // Counters
     private static final String SUBMISSIONS_TOTAL = "code_execution_submissions_total";
@@ -26,65 +48,276 @@ public class MetricsService {
     // Timers
     private static final String EXECUTION_TIME = "code_execution_time_seconds";
     private static final String JUDGE0_API_TIME = "code_execution_judge0_api_time_seconds";
+    private static final String API_CALLS = "code_execution_api_calls";
+    private static final String API_ERRORS = "code_execution_api_errors";
+    
+    // Task executor
+    private static final String EXECUTOR_ACTIVE = "code_execution_executor_active";
+    private static final String EXECUTOR_WAITING = "code_execution_executor_waiting";
+    private static final String EXECUTOR_QUEUE_WAIT = "code_execution_executor_queue_wait_seconds";
+    private static final String EXECUTOR_REJECTED = "code_execution_executor_rejected";
     
+    // Adaptive batching
+    private static final String BATCH_SIZE = "code_execution_batch_size";
+    private static final String BATCH_CONCURRENCY = "code_execution_batch_concurrency";
+    private static final String BATCH_LATENCY = "code_execution_batch_submit_latency_ewma_ms";
+    private static final String BATCH_BACKOFFS = "code_execution_batch_backoffs";
+    private static final String BATCH_SUBMITTED_SIZE = "code_execution_batch_submitted_size";
+
+    // Judge0 submissions
+    private static final String POLL_ATTEMPTS = "code_execution_poll_attempts";
+    private static final String JUDGE0_QUEUE_TIME = "code_execution_judge0_queue_seconds";
+    private static final String JUDGE0_RUN_TIME = "code_execution_judge0_run_seconds";
+
+    // Submission scheduler
+    private static final String SCHEDULER_QUEUED = "code_execution_scheduler_queued_batches";
+    private static final String SCHEDULER_IN_FLIGHT = "code_execution_scheduler_in_flight_batches";
+    private static final String SCHEDULER_WAIT = "code_execution_scheduler_wait_seconds";
+
+    // Admission control
+    private static final String ADMISSION_ESTIMATE = "code_execution_admission_estimate_ms";
+    private static final String ADMISSION_REJECTED = "code_execution_admission_rejected";
+
+    // Bulk rejudge
+    private static final String REJUDGE_RUNNING_JOBS = "code_execution_rejudge_running_jobs";
+    private static final String REJUDGE_SUBMISSIONS = "code_execution_rejudge_submissions";
+
+    // Submission history
+    private static final String HISTORY_BUFFERED = "code_execution_history_buffered";
+    private static final String HISTORY_WRITTEN = "code_execution_history_written";
+    private static final String HISTORY_WRITE_TIME = "code_execution_history_write_seconds";
+    private static final String HISTORY_DROPPED = "code_execution_history_dropped";
+
+    // Histogram bounds; buckets outside them are not published
+    private static final Duration MIN_EXECUTION = Duration.ofMillis(10);
+    private static final Duration MAX_EXECUTION = Duration.ofMinutes(5);
+    private static final Duration MIN_CALL = Duration.ofMillis(1);
+    private static final Duration MAX_CALL = Duration.ofSeconds(60);
+    private static final Duration MIN_QUEUE_WAIT = Duration.ofNanos(100_000);
+    private static final Duration MAX_QUEUE_WAIT = Duration.ofSeconds(60);
+
+    private final Counter testCasesTotal;
+    private final Counter testCasesPassed;
+    private final Counter submissionsFailed;
+    private final DistributionSummary batchSubmittedSize;
+    private final DistributionSummary pollAttempts;
+    private final Timer judge0QueueTime;
+    private final Timer judge0RunTime;
+    private final Counter historyWritten;
+    private final Timer historyWriteTime;
+
+    public MetricsService(MeterRegistry meterRegistry) {
+        this(meterRegistry, new ProblemMetricsProperties());
+    }
+
+    @Autowired
+    public MetricsService(MeterRegistry meterRegistry, ProblemMetricsProperties problemProperties) {
+        this.meterRegistry = meterRegistry;
+        this.problemProperties = problemProperties;
+        testCasesTotal = Counter.builder(TEST_CASES_TOTAL).register(meterRegistry);
+        testCasesPassed = Counter.builder(TEST_CASES_PASSED).register(meterRegistry);
+        submissionsFailed = Counter.builder(SUBMISSIONS_FAILED).register(meterRegistry);
+        batchSubmittedSize = DistributionSummary.builder(BATCH_SUBMITTED_SIZE)
+                .description("Submissions per Judge0 batch request")
+                .serviceLevelObjectives(1, 2, 5, 10, 15, 20, 50, 100)
+                .register(meterRegistry);
+        pollAttempts = DistributionSummary.builder(POLL_ATTEMPTS)
+                .description("Polling rounds until a token's result was final")
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 30, 60)
+                .register(meterRegistry);
+        judge0QueueTime = histogramTimer(Timer.builder(JUDGE0_QUEUE_TIME)
+                .description("Time a submission waited in Judge0's queue before running"), MIN_CALL, MAX_CALL)
+                .register(meterRegistry);
+        judge0RunTime = histogramTimer(Timer.builder(JUDGE0_RUN_TIME)
+                .description("Wall time of a submission's run in Judge0"), MIN_CALL, MAX_CALL)
+                .register(meterRegistry);
+        historyWritten = Counter.builder(HISTORY_WRITTEN).register(meterRegistry);
+        historyWriteTime = histogramTimer(Timer.builder(HISTORY_WRITE_TIME), MIN_QUEUE_WAIT, MAX_CALL)
+                .register(meterRegistry);
+    }
+
     public void recordSubmission(boolean success) {
-        Counter.builder(SUBMISSIONS_TOTAL)
-                .tag("success", String.valueOf(success))
-                .register(meterRegistry)
-                .increment();
-                
+        counter(SUBMISSIONS_TOTAL, "success", String.valueOf(success)).increment();
         if (!success) {
-            Counter.builder(SUBMISSIONS_FAILED)
-                    .register(meterRegistry)
-                    .increment();
+            submissionsFailed.increment();
         }
     }
     
     public void recordTestCases(int total, int passed) {
-        Counter.builder(TEST_CASES_TOTAL)
-                .register(meterRegistry)
-                .increment(total);
-                
-        Counter.builder(TEST_CASES_PASSED)
-                .register(meterRegistry)
-                .increment(passed);
+        testCasesTotal.increment(total);
+        testCasesPassed.increment(passed);
     }
     
     public void recordApiCall(String endpoint, String method, int status, long durationMs) {
-        Timer.builder("code_execution_api_calls")
-                .tag("endpoint", endpoint)
-                .tag("method", method)
-                .tag("status", String.valueOf(status))
-                .register(meterRegistry)
+        timer(API_CALLS, MIN_CALL, MAX_CALL,
+                "endpoint", endpoint, "method", method, "status", String.valueOf(status))
                 .record(durationMs, TimeUnit.MILLISECONDS);
     }
     
     public void recordApiError(String endpoint, String method, Exception e) {
-        Counter.builder("code_execution_api_errors")
-                .tag("endpoint", endpoint)
-                .tag("method", method)
-                .tag("error", e.getClass().getSimpleName())
-                .register(meterRegistry)
+        counter(API_ERRORS, "endpoint", endpoint, "method", method, "error", e.getClass().getSimpleName())
                 .increment();
     }
     
     public void recordExecutionTime(String problemId, long durationMs, boolean success) {
-        Timer.builder(EXECUTION_TIME)
-                .tag("problem_id", problemId)
-                .tag("success", String.valueOf(success))
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(meterRegistry)
-                .record(durationMs, TimeUnit.MILLISECONDS);
+        executionTimer(problemId, success).record(durationMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public void registerExecutorGauges(String mode, Supplier<Number> active, Supplier<Number> waiting) {
+        Gauge.builder(EXECUTOR_ACTIVE, active)
+                .tag("mode", mode)
+                .register(meterRegistry);
+        Gauge.builder(EXECUTOR_WAITING, waiting)
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    public void recordExecutorQueueWait(String mode, long waitNanos) {
+        timer(EXECUTOR_QUEUE_WAIT, MIN_QUEUE_WAIT, MAX_QUEUE_WAIT, "mode", mode)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordExecutorRejection(String mode) {
+        counter(EXECUTOR_REJECTED, "mode", mode).increment();
+    }
+    
+    public void registerBatchingGauges(Supplier<Number> batchSize, Supplier<Number> concurrency,
+                                       Supplier<Number> latencyMs) {
+        Gauge.builder(BATCH_SIZE, batchSize)
+                .register(meterRegistry);
+        Gauge.builder(BATCH_CONCURRENCY, concurrency)
+                .register(meterRegistry);
+        Gauge.builder(BATCH_LATENCY, latencyMs)
+                .register(meterRegistry);
+    }
+
+    public void recordBatchBackoff(String reason) {
+        counter(BATCH_BACKOFFS, "reason", reason).increment();
+    }
+
+    public void recordBatchSubmitted(int submissions) {
+        batchSubmittedSize.record(submissions);
+    }
+
+    public void recordPollAttempts(int attempts) {
+        pollAttempts.record(attempts);
+    }
+
+    /**
+     * Splits a finished submission's time in Judge0 into waiting in its
+     * queue and running.
+     */
+    public void recordJudge0Times(long queueMillis, long runMillis) {
+        judge0QueueTime.record(queueMillis, TimeUnit.MILLISECONDS);
+        judge0RunTime.record(runMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public void registerSchedulerGauges(String priority, Supplier<Number> queued, Supplier<Number> inFlight) {
+        Gauge.builder(SCHEDULER_QUEUED, queued)
+                .tag("priority", priority)
+                .register(meterRegistry);
+        Gauge.builder(SCHEDULER_IN_FLIGHT, inFlight)
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    public void recordSchedulerWait(String priority, long waitNanos) {
+        timer(SCHEDULER_WAIT, MIN_QUEUE_WAIT, MAX_QUEUE_WAIT, "priority", priority)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerAdmissionGauge(String priority, Supplier<Number> estimateMs) {
+        Gauge.builder(ADMISSION_ESTIMATE, estimateMs)
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    public void recordAdmissionRejection(String priority) {
+        counter(ADMISSION_REJECTED, "priority", priority).increment();
+    }
+
+    public void registerRejudgeGauge(Supplier<Number> runningJobs) {
+        Gauge.builder(REJUDGE_RUNNING_JOBS, runningJobs)
+                .register(meterRegistry);
+    }
+
+    public void recordRejudgedSubmission(boolean passed) {
+        counter(REJUDGE_SUBMISSIONS, "passed", String.valueOf(passed)).increment();
+    }
+
+    public void registerHistoryGauge(Supplier<Number> buffered) {
+        Gauge.builder(HISTORY_BUFFERED, buffered)
+                .register(meterRegistry);
+    }
+
+    public void recordHistoryWrite(int submissions, long durationNanos) {
+        historyWritten.increment(submissions);
+        historyWriteTime.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHistoryDropped(String reason, int submissions) {
+        counter(HISTORY_DROPPED, "reason", reason).increment(submissions);
+    }
+
+    public void monitorCache(String name, AsyncCache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * The problem_id tag for {@code problemId}: configured problems and the
+     * first {@code metrics.problems.max-tagged} others seen keep their id,
+     * everything after that shares "other", so a flood of distinct ids
+     * cannot grow the registry without bound.
+     */
+    String problemTag(String problemId) {
+        if (taggedProblems.contains(problemId) || problemProperties.getTagged().contains(problemId)) {
+            return problemId;
+        }
+        synchronized (taggedProblems) {
+            if (taggedProblems.size() < problemProperties.getMaxTagged()) {
+                taggedProblems.add(problemId);
+                return problemId;
+            }
+        }
+        return OTHER_PROBLEM;
+    }
+
+    private Timer executionTimer(String problemId, boolean success) {
+        return timer(EXECUTION_TIME, MIN_EXECUTION, MAX_EXECUTION,
+                "problem_id", problemTag(problemId), "success", String.valueOf(success));
+    }
+
+    private Counter counter(String name, String... tags) {
+        return meter(name, tags, key -> Counter.builder(name).tags(tags).register(meterRegistry));
+    }
+
+    private Timer timer(String name, Duration min, Duration max, String... tags) {
+        return meter(name, tags, key -> histogramTimer(Timer.builder(name).tags(tags), min, max).register(meterRegistry));
+    }
+
+    private static Timer.Builder histogramTimer(Timer.Builder builder, Duration min, Duration max) {
+        return builder.publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Meter> M meter(String name, String[] tags, Function<MeterKey, M> register) {
+        MeterKey key = new MeterKey(name, List.of(tags));
+        Meter meter = meters.get(key);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(key, register);
+        }
+        return (M) meter;
+    }
+
+    private record MeterKey(String name, List<String> tags) {
     }
     
     // Deprecated methods for backward compatibility
     @Deprecated
     public void recordJudge0ApiError(String endpoint, String error) {
-        Counter.builder("code_execution_judge0_api_errors")
-                .tag("endpoint", endpoint)
-                .tag("error", error)
-                .register(meterRegistry)
-                .increment();
+        counter("code_execution_judge0_api_errors", "endpoint", endpoint, "error", error).increment();
     }
     
     @Deprecated
@@ -95,11 +328,7 @@ public class MetricsService {
     @Deprecated
     public void stopExecutionTimer(Timer.Sample sample, String problemId, boolean success) {
         if (sample != null) {
-            sample.stop(Timer.builder(EXECUTION_TIME)
-                    .tag("problem_id", problemId)
-                    .tag("success", String.valueOf(success))
-                    .publishPercentiles(0.5, 0.95, 0.99)
-                    .register(meterRegistry));
+            sample.stop(executionTimer(problemId, success));
         }
     }
     
@@ -111,10 +340,7 @@ public class MetricsService {
     @Deprecated
     public void stopJudge0ApiTimer(Timer.Sample sample, String endpoint) {
         if (sample != null) {
-            sample.stop(Timer.builder(JUDGE0_API_TIME)
-                    .tag("endpoint", endpoint)
-                    .publishPercentiles(0.5, 0.95, 0.99)
-                    .register(meterRegistry));
+            sample.stop(timer(JUDGE0_API_TIME, MIN_CALL, MAX_CALL, "endpoint", endpoint));
         }
     }
 }
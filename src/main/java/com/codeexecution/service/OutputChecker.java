@@ -0,0 +1,22 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Decides whether a program's output is an accepted answer for a test case.
+ * Implementations are shared between threads. Custom checkers are named per
+ * problem with {@code checker.problems.<id>.checker-class} and need a public
+ * no-argument constructor.
+ */
+public interface OutputChecker {
+
+    /**
+     * @param testCase the test case that was run, for checkers that need its input
+     * @param output   the program's stdout
+     * @param expected the test case's expected output
+     */
+    boolean check(TestCase testCase, Reader output, Reader expected) throws IOException;
+}
@@ -0,0 +1,222 @@
+package com.codeexecution.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The built-in {@link OutputChecker}s. All of them read both sides through
+ * small fixed buffers, so a large output is compared without being copied
+ * into a string; only the FLOAT checker collects the few characters of a
+ * number token that differs.
+ */
+public final class OutputCheckers {
+    static final int BUFFER_SIZE = 4096;
+    // Longer tokens are never numbers worth parsing
+    static final int MAX_NUMBER_LENGTH = 64;
+
+    private OutputCheckers() {
+    }
+
+    /**
+     * Identical apart from leading and trailing whitespace, the rule Judge0
+     * applies to {@code expected_output}.
+     */
+    public static OutputChecker exact() {
+        return (testCase, output, expected) -> {
+            Scanner actual = new Scanner(output);
+            Scanner wanted = new Scanner(expected);
+            actual.skipWhitespace();
+            wanted.skipWhitespace();
+            while (true) {
+                int a = actual.next();
+                int b = wanted.next();
+                if (a != b) {
+                    // Only equal if both sides are down to trailing whitespace
+                    return (a == -1 || Character.isWhitespace(a)) && (b == -1 || Character.isWhitespace(b))
+                            && actual.onlyWhitespaceLeft() && wanted.onlyWhitespaceLeft();
+                }
+                if (a == -1) {
+                    return true;
+                }
+            }
+        };
+    }
+
+    /**
+     * The same whitespace-separated tokens; line breaks and runs of spaces
+     * do not matter.
+     */
+    public static OutputChecker tokens() {
+        return (testCase, output, expected) -> {
+            Scanner actual = new Scanner(output);
+            Scanner wanted = new Scanner(expected);
+            while (actual.nextToken() & wanted.nextToken()) {
+                while (true) {
+                    int a = actual.nextTokenChar();
+                    int b = wanted.nextTokenChar();
+                    if (a != b) {
+                        return false;
+                    }
+                    if (a == -1) {
+                        break;
+                    }
+                }
+            }
+            return actual.atEnd() && wanted.atEnd();
+        };
+    }
+
+    /**
+     * Like {@link #tokens()}, but number tokens match when their absolute or
+     * relative difference is at most {@code epsilon}.
+     */
+    public static OutputChecker floats(double epsilon) {
+        return (testCase, output, expected) -> {
+            Scanner actual = new Scanner(output);
+            Scanner wanted = new Scanner(expected);
+            StringBuilder actualToken = new StringBuilder();
+            StringBuilder wantedToken = new StringBuilder();
+            while (actual.nextToken() & wanted.nextToken()) {
+                actualToken.setLength(0);
+                wantedToken.setLength(0);
+                boolean same = true;
+                while (true) {
+                    int a = actual.nextTokenChar();
+                    int b = wanted.nextTokenChar();
+                    if (a != b) {
+                        same = false;
+                        collect(actualToken, a);
+                        collect(wantedToken, b);
+                        break;
+                    }
+                    if (a == -1) {
+                        break;
+                    }
+                    collect(actualToken, a);
+                    collect(wantedToken, b);
+                }
+                if (!same) {
+                    actual.collectToken(actualToken);
+                    wanted.collectToken(wantedToken);
+                    if (!numbersMatch(actualToken, wantedToken, epsilon)) {
+                        return false;
+                    }
+                }
+            }
+            return actual.atEnd() && wanted.atEnd();
+        };
+    }
+
+    private static void collect(StringBuilder token, int c) {
+        if (c != -1 && token.length() <= MAX_NUMBER_LENGTH) {
+            token.append((char) c);
+        }
+    }
+
+    private static boolean numbersMatch(CharSequence actual, CharSequence expected, double epsilon) {
+        if (!isNumber(actual) || !isNumber(expected)) {
+            return false;
+        }
+        try {
+            double a = Double.parseDouble(actual.toString());
+            double b = Double.parseDouble(expected.toString());
+            return Math.abs(a - b) <= epsilon * Math.max(1, Math.abs(b));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Decimal notation only; parseDouble alone would also take "NaN", hex and a trailing "d" or "f"
+    private static boolean isNumber(CharSequence token) {
+        if (token.isEmpty() || token.length() > MAX_NUMBER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads characters through a fixed buffer.
+     */
+    static final class Scanner {
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        Scanner(Reader reader) {
+            this.reader = reader;
+        }
+
+        int peek() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        int next() throws IOException {
+            int c = peek();
+            if (c != -1) {
+                position++;
+            }
+            return c;
+        }
+
+        void skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+                position++;
+            }
+        }
+
+        boolean atEnd() throws IOException {
+            return peek() == -1;
+        }
+
+        boolean onlyWhitespaceLeft() throws IOException {
+            skipWhitespace();
+            return atEnd();
+        }
+
+        /**
+         * Moves to the start of the next token.
+         *
+         * @return false if there is none
+         */
+        boolean nextToken() throws IOException {
+            skipWhitespace();
+            return !atEnd();
+        }
+
+        /**
+         * The next character of the current token, or -1 where it ends.
+         */
+        int nextTokenChar() throws IOException {
+            int c = peek();
+            if (c == -1 || Character.isWhitespace(c)) {
+                return -1;
+            }
+            position++;
+            return c;
+        }
+
+        // Reads the rest of the current token, keeping at most MAX_NUMBER_LENGTH + 1 characters
+        void collectToken(StringBuilder token) throws IOException {
+            int c;
+            while ((c = nextTokenChar()) != -1) {
+                collect(token, c);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.CheckerProperties;
+import com.codeexecution.model.TestCase;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Judges a run's stdout against the test case's expected output with the
+ * problem's {@link OutputChecker}. With {@code checker.local} on, expected
+ * outputs are not sent to Judge0: it only runs the program, and every run
+ * that exits cleanly is judged here.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutputComparator {
+    private final CheckerProperties properties;
+
+    private final Map<String, OutputChecker> checkers = new ConcurrentHashMap<>();
+
+    // A misconfigured checker fails startup rather than every submission of its problem
+    @PostConstruct
+    void validate() {
+        properties.getProblems().keySet().forEach(this::checkerFor);
+    }
+
+    public boolean isLocal() {
+        return properties.isLocal();
+    }
+
+    /**
+     * @return whether {@code stdout} is accepted; always true for a test
+     * case without an expected output
+     * @throws CheckerException if the checker itself fails
+     */
+    public boolean matches(String problemId, TestCase testCase, String stdout) {
+        if (!testCase.hasExpectedOutput()) {
+            return true;
+        }
+        OutputChecker checker = checkerFor(problemId);
+        try (Reader output = new StringReader(stdout == null ? "" : stdout);
+             Reader expected = testCase.openExpectedOutput()) {
+            return checker.check(testCase, output, expected);
+        } catch (IOException | RuntimeException e) {
+            throw new CheckerException("Checker for problem " + problemId + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private OutputChecker checkerFor(String problemId) {
+        return checkers.computeIfAbsent(problemId, this::createChecker);
+    }
+
+    private OutputChecker createChecker(String problemId) {
+        CheckerProperties.Problem problem = properties.getProblems().get(problemId);
+        CheckerProperties.Mode mode = problem != null && problem.getMode() != null
+                ? problem.getMode() : properties.getDefaultMode();
+        double epsilon = problem != null && problem.getEpsilon() != null ? problem.getEpsilon() : properties.getEpsilon();
+
+        return switch (mode) {
+            case EXACT -> OutputCheckers.exact();
+            case TOKENS -> OutputCheckers.tokens();
+            case FLOAT -> OutputCheckers.floats(epsilon);
+            case CUSTOM -> {
+                String className = problem != null ? problem.getCheckerClass() : null;
+                if (!StringUtils.hasText(className)) {
+                    throw new IllegalStateException("Problem " + problemId + " uses a custom checker but names no checker-class");
+                }
+                yield instantiate(className);
+            }
+        };
+    }
+
+    private OutputChecker instantiate(String className) {
+        try {
+            Class<?> type = Class.forName(className);
+            if (!OutputChecker.class.isAssignableFrom(type)) {
+                throw new IllegalStateException(className + " does not implement " + OutputChecker.class.getName());
+            }
+            log.info("Using custom output checker {}", className);
+            return (OutputChecker) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create output checker " + className, e);
+        }
+    }
+
+    public static class CheckerException extends RuntimeException {
+        public CheckerException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
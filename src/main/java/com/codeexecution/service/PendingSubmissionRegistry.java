@@ -0,0 +1,50 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.SubmissionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of Judge0 tokens whose result has not arrived yet.
+ * Whoever sees the final result first, the batch poller or a Judge0
+ * callback, completes the token's future; the entry is removed on completion.
+ */
+@Slf4j
+@Component
+public class PendingSubmissionRegistry {
+
+    private final Map<String, CompletableFuture<SubmissionResult>> pending = new ConcurrentHashMap<>();
+
+    public CompletableFuture<SubmissionResult> register(String token) {
+        return pending.computeIfAbsent(token, t -> {
+            CompletableFuture<SubmissionResult> future = new CompletableFuture<>();
+            future.whenComplete((result, e) -> pending.remove(t));
+            return future;
+        });
+    }
+
+    /**
+     * Completes the pending future for the result's token.
+     *
+     * @return false if the token is unknown or already completed
+     */
+    public boolean complete(SubmissionResult result) {
+        if (result == null || result.getToken() == null) {
+            return false;
+        }
+        CompletableFuture<SubmissionResult> future = pending.get(result.getToken());
+        if (future == null) {
+            log.debug("Ignoring result for unknown token: {}", result.getToken());
+            return false;
+        }
+        return future.complete(result);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the delays between poll rounds from what recent submissions of the
+ * same problem took, so a loop neither hammers Judge0 while a token sits in
+ * its queue nor sleeps long after the verdict is ready.
+ * <p>
+ * The first round waits for the problem's median turnaround (Judge0's
+ * {@code finished_at - created_at}), when about half of its submissions
+ * are done. Later rounds start one median run time ({@code wall_time})
+ * apart and the step grows by {@code pollBackoffMultiplier} while any
+ * token is still "In Queue"; once all of them are "Processing" it is held
+ * at the median run time. Every delay gets {@code pollJitter} so loops
+ * started together do not poll in lockstep. Problems without samples use
+ * {@code pollingIntervalMs}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PollDelayEstimator {
+    static final int SAMPLES = 32;
+
+    private final Judge0Properties properties;
+
+    private final Map<String, Samples> turnaround = new ConcurrentHashMap<>();
+    private final Map<String, Samples> runTime = new ConcurrentHashMap<>();
+
+    public void record(String problemId, long turnaroundMs, long runMs) {
+        turnaround.computeIfAbsent(key(problemId), k -> new Samples()).add(turnaroundMs);
+        if (runMs >= 0) {
+            runTime.computeIfAbsent(key(problemId), k -> new Samples()).add(runMs);
+        }
+    }
+
+    /**
+     * Delay before the first round of a loop, before jitter.
+     */
+    public long firstDelayMs(String problemId) {
+        if (!properties.isAdaptivePolling()) {
+            return properties.getPollingIntervalMs();
+        }
+        return clamp(median(turnaround, problemId, properties.getPollingIntervalMs()));
+    }
+
+    /**
+     * Delay after a round that left tokens outstanding, before jitter.
+     *
+     * @param previousStepMs the delay returned for the previous round, 0
+     *                       after the first round
+     * @param anyQueued      whether some token was still "In Queue" in that
+     *                       round
+     */
+    public long nextDelayMs(String problemId, long previousStepMs, boolean anyQueued) {
+        if (!properties.isAdaptivePolling()) {
+            return properties.getPollingIntervalMs();
+        }
+        long runMs = clamp(median(runTime, problemId, properties.getPollingIntervalMs()));
+        if (previousStepMs == 0) {
+            return runMs;
+        }
+        long backedOff = clamp((long) (previousStepMs * properties.getPollBackoffMultiplier()));
+        // Everything is running: the verdict is about one run time away
+        return anyQueued ? backedOff : Math.min(backedOff, runMs);
+    }
+
+    public long jitter(long delayMs) {
+        double jitter = properties.isAdaptivePolling() ? properties.getPollJitter() : 0;
+        if (jitter == 0) {
+            return delayMs;
+        }
+        return Math.max(1, (long) (delayMs * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter))));
+    }
+
+    private long clamp(long delayMs) {
+        return Math.max(properties.getMinPollDelayMs(), Math.min(properties.getMaxPollDelayMs(), delayMs));
+    }
+
+    private long median(Map<String, Samples> samples, String problemId, long fallback) {
+        Samples problem = samples.get(key(problemId));
+        return problem == null ? fallback : problem.median();
+    }
+
+    private static String key(String problemId) {
+        return problemId == null ? "" : problemId;
+    }
+
+    // The last SAMPLES values of one problem
+    private static final class Samples {
+        private final long[] values = new long[SAMPLES];
+        private int count;
+        private int next;
+
+        synchronized void add(long value) {
+            values[next] = value;
+            next = (next + 1) % SAMPLES;
+            count = Math.min(count + 1, SAMPLES);
+        }
+
+        synchronized long median() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted[count / 2];
+        }
+    }
+}
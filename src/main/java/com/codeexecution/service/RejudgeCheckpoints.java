@@ -0,0 +1,123 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.RejudgeProperties;
+import com.codeexecution.model.RejudgeRequest;
+import com.codeexecution.model.RejudgeVerdict;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps rejudge jobs on disk so a restart resumes them: {@code <id>.json}
+ * holds the job as submitted and {@code <id>.verdicts} gets one JSON line
+ * per judged submission. A line torn by a crash is skipped on load and its
+ * submission judged again; the next verdict starts on a line of its own.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RejudgeCheckpoints {
+    private static final String JOB_SUFFIX = ".json";
+    private static final String VERDICTS_SUFFIX = ".verdicts";
+
+    private final RejudgeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public record JobFile(String jobId, String tenant, Instant createdAt, RejudgeRequest request) {
+    }
+
+    public record Checkpoint(JobFile job, List<RejudgeVerdict> verdicts) {
+    }
+
+    public void create(JobFile job) throws IOException {
+        Path dir = Paths.get(properties.getCheckpointDir());
+        Files.createDirectories(dir);
+        // Written aside and moved, so a job file is never seen half written
+        Path temp = dir.resolve(job.jobId() + JOB_SUFFIX + ".tmp");
+        objectMapper.writeValue(temp.toFile(), job);
+        Files.move(temp, dir.resolve(job.jobId() + JOB_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void appendVerdict(String jobId, RejudgeVerdict verdict) throws IOException {
+        String line = objectMapper.writeValueAsString(verdict) + "\n";
+        try (FileChannel channel = FileChannel.open(verdictsFile(jobId),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            if (end > 0 && !endsWithNewline(channel, end)) {
+                line = "\n" + line;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                end += channel.write(bytes, end);
+            }
+        }
+    }
+
+    public void delete(String jobId) throws IOException {
+        Path dir = Paths.get(properties.getCheckpointDir());
+        Files.deleteIfExists(dir.resolve(jobId + JOB_SUFFIX));
+        Files.deleteIfExists(verdictsFile(jobId));
+    }
+
+    public List<Checkpoint> load() {
+        Path dir = Paths.get(properties.getCheckpointDir());
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(JOB_SUFFIX)).toList()) {
+                try {
+                    JobFile job = objectMapper.readValue(file.toFile(), JobFile.class);
+                    checkpoints.add(new Checkpoint(job, readVerdicts(job.jobId())));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable rejudge checkpoint {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list rejudge checkpoints in {}: {}", dir, e.getMessage());
+        }
+        return checkpoints;
+    }
+
+    private List<RejudgeVerdict> readVerdicts(String jobId) throws IOException {
+        Path file = verdictsFile(jobId);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<RejudgeVerdict> verdicts = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            try {
+                verdicts.add(objectMapper.readValue(line, RejudgeVerdict.class));
+            } catch (JsonProcessingException e) {
+                log.debug("Skipping torn verdict line for rejudge job {}", jobId);
+            }
+        }
+        return verdicts;
+    }
+
+    private static boolean endsWithNewline(FileChannel channel, long size) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        return channel.read(last, size - 1) == 1 && last.get(0) == '\n';
+    }
+
+    private Path verdictsFile(String jobId) {
+        return Paths.get(properties.getCheckpointDir()).resolve(jobId + VERDICTS_SUFFIX);
+    }
+}
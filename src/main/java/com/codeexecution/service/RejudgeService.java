@@ -0,0 +1,373 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.RejudgeProperties;
+import com.codeexecution.exception.RejudgeJobNotFoundException;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.RejudgeProgress;
+import com.codeexecution.model.RejudgeRequest;
+import com.codeexecution.model.RejudgeVerdict;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejudges many submissions of a problem as one background job.
+ * <p>
+ * A job hands its submissions to the backend a window at a time, each
+ * window as a single stream of test cases, so Judge0 batches are filled
+ * across submission boundaries instead of ending half empty with every
+ * submission. The next window goes out as soon as the previous one has
+ * been accepted, while its results are still being polled, up to
+ * {@code rejudge.max-open-submissions} unjudged submissions. Everything runs
+ * in the rejudge priority class, which the {@link SubmissionScheduler} holds
+ * to its share of Judge0.
+ * <p>
+ * Every verdict is checkpointed as it comes in; after a restart a job
+ * carries on with the submissions it has no verdict for. A finished job
+ * drops its checkpoint and stays listed for
+ * {@code rejudge.finished-retention-ms}.
+ */
+@Slf4j
+@Service
+public class RejudgeService {
+
+    private final RejudgeProperties properties;
+    private final CodeExecutionService executionService;
+    private final RejudgeCheckpoints checkpoints;
+    private final MetricsService metricsService;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public RejudgeService(RejudgeProperties properties, CodeExecutionService executionService,
+                          RejudgeCheckpoints checkpoints, MetricsService metricsService) {
+        this.properties = properties;
+        this.executionService = executionService;
+        this.checkpoints = checkpoints;
+        this.metricsService = metricsService;
+        metricsService.registerRejudgeGauge(() -> jobs.values().stream()
+                .filter(job -> job.state == RejudgeProgress.State.RUNNING)
+                .count());
+    }
+
+    public RejudgeProgress start(String tenant, RejudgeRequest request) {
+        evictFinished();
+        Set<String> ids = new HashSet<>();
+        for (RejudgeRequest.Submission submission : request.getSubmissions()) {
+            if (!ids.add(submission.getId())) {
+                throw new IllegalArgumentException("Duplicate submission id: " + submission.getId());
+            }
+        }
+
+        RejudgeCheckpoints.JobFile jobFile = new RejudgeCheckpoints.JobFile(UUID.randomUUID().toString(), tenant,
+                Instant.now(), request);
+        try {
+            checkpoints.create(jobFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not checkpoint rejudge job: " + e.getMessage(), e);
+        }
+        Job job = new Job(jobFile, List.of());
+        jobs.put(job.id, job);
+        log.info("Started rejudge job {} for problem {} with {} submissions",
+                job.id, request.getProblemId(), request.getSubmissions().size());
+        pump(job);
+        return job.progress();
+    }
+
+    /**
+     * Picks up the checkpointed jobs; unfinished ones carry on where their
+     * verdicts stop.
+     */
+    public void resumeJobs() {
+        if (!properties.isResumeOnStartup()) {
+            return;
+        }
+        for (RejudgeCheckpoints.Checkpoint checkpoint : checkpoints.load()) {
+            Job job = new Job(checkpoint.job(), checkpoint.verdicts());
+            if (jobs.putIfAbsent(job.id, job) != null) {
+                continue;
+            }
+            if (job.state == RejudgeProgress.State.COMPLETED) {
+                // Stopped between its last verdict and dropping the checkpoint
+                deleteCheckpoint(job);
+            } else if (job.state == RejudgeProgress.State.RUNNING) {
+                log.info("Resuming rejudge job {}: {} of {} submissions already judged",
+                        job.id, job.verdicts.size(), job.submissions.size());
+                pump(job);
+            }
+        }
+    }
+
+    public List<RejudgeProgress> getJobs() {
+        evictFinished();
+        return jobs.values().stream()
+                .map(Job::progress)
+                .sorted(Comparator.comparing(RejudgeProgress::createdAt))
+                .toList();
+    }
+
+    public RejudgeProgress getProgress(String jobId) {
+        return job(jobId).progress();
+    }
+
+    public List<RejudgeVerdict> getVerdicts(String jobId) {
+        Job job = job(jobId);
+        synchronized (job) {
+            return List.copyOf(job.verdicts.values());
+        }
+    }
+
+    /**
+     * Restarts a job that stopped on an error.
+     */
+    public RejudgeProgress resume(String jobId) {
+        Job job = job(jobId);
+        synchronized (job) {
+            if (job.state != RejudgeProgress.State.FAILED) {
+                throw new IllegalArgumentException("Only failed jobs can be resumed; job " + jobId + " is "
+                        + job.state.name().toLowerCase());
+            }
+            job.start();
+        }
+        log.info("Resuming rejudge job {}", jobId);
+        pump(job);
+        return job.progress();
+    }
+
+    /**
+     * Stops a job and drops its checkpoint. Submissions already with Judge0
+     * run to completion, but their verdicts are discarded.
+     */
+    public RejudgeProgress cancel(String jobId) {
+        Job job = job(jobId);
+        synchronized (job) {
+            if (job.state == RejudgeProgress.State.COMPLETED || job.state == RejudgeProgress.State.CANCELLED) {
+                return job.progress();
+            }
+            job.state = RejudgeProgress.State.CANCELLED;
+            job.stop();
+        }
+        deleteCheckpoint(job);
+        log.info("Cancelled rejudge job {}", jobId);
+        return job.progress();
+    }
+
+    private Job job(String jobId) {
+        evictFinished();
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RejudgeJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minusMillis(properties.getFinishedRetentionMs());
+        jobs.values().removeIf(job -> job.finishedBy(cutoff));
+    }
+
+    private void deleteCheckpoint(Job job) {
+        try {
+            checkpoints.delete(job.id);
+        } catch (IOException e) {
+            log.warn("Could not delete checkpoint of rejudge job {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    // Sends the next window if the job has room for one; called whenever a window is accepted or a verdict is in
+    private void pump(Job job) {
+        List<RejudgeRequest.Submission> window = new ArrayList<>();
+        synchronized (job) {
+            if (job.state != RejudgeProgress.State.RUNNING || job.launching) {
+                return;
+            }
+            while (job.next < job.submissions.size()) {
+                RejudgeRequest.Submission submission = job.submissions.get(job.next);
+                if (!job.verdicts.containsKey(submission.getId()) && !job.open.contains(submission.getId())) {
+                    break;
+                }
+                job.next++;
+            }
+            if (job.next == job.submissions.size()) {
+                if (job.open.isEmpty()) {
+                    job.state = RejudgeProgress.State.COMPLETED;
+                    job.stop();
+                    // Under the lock, so no verdict is appended after the checkpoint is gone
+                    deleteCheckpoint(job);
+                    log.info("Rejudge job {} completed: {} of {} submissions passed",
+                            job.id, job.passed, job.submissions.size());
+                }
+                return;
+            }
+            if (!job.open.isEmpty() && job.open.size() + properties.getWindowSubmissions() > properties.getMaxOpenSubmissions()) {
+                return;
+            }
+            for (int i = job.next; i < job.submissions.size() && window.size() < properties.getWindowSubmissions(); i++) {
+                RejudgeRequest.Submission submission = job.submissions.get(i);
+                if (!job.verdicts.containsKey(submission.getId()) && job.open.add(submission.getId())) {
+                    window.add(submission);
+                }
+            }
+            job.launching = true;
+        }
+
+        List<String> sources = window.stream().map(RejudgeRequest.Submission::getSourceCode).toList();
+        CompletableFuture<List<CompletableFuture<ExecutionResult>>> accepted;
+        try {
+            accepted = executionService.executeAll(job.problemId, sources, job.context);
+        } catch (RuntimeException e) {
+            accepted = CompletableFuture.failedFuture(e);
+        }
+        accepted.whenComplete((verdicts, e) -> {
+            if (e != null) {
+                synchronized (job) {
+                    job.launching = false;
+                    window.forEach(submission -> job.open.remove(submission.getId()));
+                }
+                fail(job, e);
+                return;
+            }
+            for (int i = 0; i < window.size(); i++) {
+                RejudgeRequest.Submission submission = window.get(i);
+                verdicts.get(i).whenComplete((result, error) -> {
+                    if (error == null) {
+                        record(job, submission, result);
+                        return;
+                    }
+                    // Left without a verdict, so resuming the job judges it again
+                    synchronized (job) {
+                        job.open.remove(submission.getId());
+                    }
+                    fail(job, error);
+                });
+            }
+            synchronized (job) {
+                job.launching = false;
+            }
+            pump(job);
+        });
+    }
+
+    private void fail(Job job, Throwable e) {
+        String error = Judge0Service.unwrap(e).getMessage();
+        synchronized (job) {
+            if (job.state != RejudgeProgress.State.RUNNING) {
+                return;
+            }
+            job.state = RejudgeProgress.State.FAILED;
+            job.error = error;
+            job.stop();
+        }
+        log.warn("Rejudge job {} stopped: {}", job.id, error);
+    }
+
+    private void record(Job job, RejudgeRequest.Submission submission, ExecutionResult result) {
+        RejudgeVerdict verdict = RejudgeVerdict.of(submission.getId(), result);
+        synchronized (job) {
+            job.open.remove(submission.getId());
+            if (job.state == RejudgeProgress.State.CANCELLED) {
+                return;
+            }
+            job.add(verdict);
+            job.judgedSinceStart++;
+            job.testCasesSinceStart += result.getTotalCount();
+            try {
+                checkpoints.appendVerdict(job.id, verdict);
+            } catch (IOException e) {
+                // Only costs rework after a restart
+                log.warn("Could not checkpoint verdict of {} in rejudge job {}: {}",
+                        submission.getId(), job.id, e.getMessage());
+            }
+        }
+        metricsService.recordRejudgedSubmission(verdict.passed());
+        pump(job);
+    }
+
+    private static final class Job {
+        final String id;
+        final String problemId;
+        final Instant createdAt;
+        final ExecutionContext context;
+        final List<RejudgeRequest.Submission> submissions;
+        // Guarded by this
+        final Map<String, RejudgeVerdict> verdicts = new LinkedHashMap<>();
+        final Set<String> open = new HashSet<>();
+        RejudgeProgress.State state;
+        String error;
+        int next;
+        int passed;
+        boolean launching;
+        Instant updatedAt;
+        long startedAt;
+        long stoppedAt;
+        int judgedSinceStart;
+        long testCasesSinceStart;
+
+        Job(RejudgeCheckpoints.JobFile file, List<RejudgeVerdict> checkpointed) {
+            this.id = file.jobId();
+            this.problemId = file.request().getProblemId();
+            this.createdAt = file.createdAt();
+            this.context = new ExecutionContext(file.tenant(), ExecutionContext.Priority.REJUDGE);
+            this.submissions = file.request().getSubmissions();
+            checkpointed.forEach(this::add);
+            this.updatedAt = createdAt;
+            start();
+            if (verdicts.size() == submissions.size()) {
+                state = RejudgeProgress.State.COMPLETED;
+                stop();
+            }
+        }
+
+        void add(RejudgeVerdict verdict) {
+            RejudgeVerdict previous = verdicts.put(verdict.submissionId(), verdict);
+            if (previous != null && previous.passed()) {
+                passed--;
+            }
+            if (verdict.passed()) {
+                passed++;
+            }
+            updatedAt = Instant.now();
+        }
+
+        void start() {
+            state = RejudgeProgress.State.RUNNING;
+            error = null;
+            next = 0;
+            startedAt = System.nanoTime();
+            stoppedAt = 0;
+            judgedSinceStart = 0;
+            testCasesSinceStart = 0;
+        }
+
+        void stop() {
+            stoppedAt = System.nanoTime();
+            updatedAt = Instant.now();
+        }
+
+        // Failed jobs are kept until resumed or cancelled
+        synchronized boolean finishedBy(Instant cutoff) {
+            return (state == RejudgeProgress.State.COMPLETED || state == RejudgeProgress.State.CANCELLED)
+                    && !updatedAt.isAfter(cutoff);
+        }
+
+        synchronized RejudgeProgress progress() {
+            double seconds = ((stoppedAt != 0 ? stoppedAt : System.nanoTime()) - startedAt) / 1e9;
+            double submissionsPerSecond = seconds > 0 ? judgedSinceStart / seconds : 0;
+            double testCasesPerSecond = seconds > 0 ? testCasesSinceStart / seconds : 0;
+            return new RejudgeProgress(id, problemId, state, submissions.size(), verdicts.size(), passed,
+                    verdicts.size() - passed, submissionsPerSecond, testCasesPerSecond, createdAt, updatedAt, error);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.SubmissionRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.StreamChannel;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityProducer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a POST /submissions/batch body, {@code {"submissions":[...]}},
+ * one submission at a time as the connection takes it. Requests are built
+ * and serialized on demand, so at most one submission's JSON is buffered
+ * rather than the whole batch as objects, a string and an entity. With
+ * gzip on, the body is compressed on the way out and sent with
+ * {@code Content-Encoding: gzip}.
+ */
+final class SubmissionBatchEntityProducer extends AbstractBinAsyncEntityProducer {
+    private static final int FRAGMENT_SIZE = 8192;
+
+    private final boolean gzip;
+    private final Chunk chunk = new Chunk();
+    private final BatchWriter writer;
+    private ByteBuffer pending = ByteBuffer.allocate(0);
+    private boolean written;
+    private boolean ended;
+
+    SubmissionBatchEntityProducer(ObjectWriter objectWriter, List<SubmissionRequest> requests, boolean gzip)
+            throws IOException {
+        super(FRAGMENT_SIZE, ContentType.APPLICATION_JSON);
+        this.gzip = gzip;
+        writer = new BatchWriter(objectWriter, requests, gzip ? new GZIPOutputStream(chunk, FRAGMENT_SIZE) : chunk);
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return gzip ? "gzip" : null;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    protected int availableData() {
+        return ended ? 0 : Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void produceData(StreamChannel<ByteBuffer> channel) throws IOException {
+        while (!ended) {
+            if (pending.hasRemaining()) {
+                channel.write(pending);
+                if (pending.hasRemaining()) {
+                    return; // Called again once the connection can take more
+                }
+                chunk.reset();
+            }
+            if (written) {
+                ended = true;
+                channel.endStream();
+                return;
+            }
+            // Appends to what is already in the chunk, such as the gzip header
+            written = !writer.writeNext();
+            pending = chunk.toByteBuffer();
+        }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    @Override
+    public void releaseResources() {
+        super.releaseResources();
+        ended = true;
+    }
+
+    // Exposes the written bytes without the copy toByteArray() makes
+    private static final class Chunk extends ByteArrayOutputStream {
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Writes a batch body to {@code out} piece by piece: the opening, then
+     * one submission per {@link #writeNext()} call, then the closing.
+     */
+    static final class BatchWriter {
+        private final ObjectWriter objectWriter;
+        private final List<SubmissionRequest> requests;
+        private final JsonGenerator generator;
+        private int next = -1;
+
+        BatchWriter(ObjectWriter objectWriter, List<SubmissionRequest> requests, OutputStream out) throws IOException {
+            this.objectWriter = objectWriter;
+            this.requests = requests;
+            this.generator = objectWriter.createGenerator(out);
+        }
+
+        /**
+         * @return false once the body is complete and {@code out} is closed
+         */
+        boolean writeNext() throws IOException {
+            if (next == -1) {
+                generator.writeStartObject();
+                generator.writeFieldName("submissions");
+                generator.writeStartArray();
+                next = 0;
+            }
+            if (next < requests.size()) {
+                objectWriter.writeValue(generator, requests.get(next++));
+                generator.flush();
+                return true;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+            return false;
+        }
+
+        void writeAll() throws IOException {
+            while (writeNext()) {
+                // One submission per call
+            }
+        }
+    }
+}
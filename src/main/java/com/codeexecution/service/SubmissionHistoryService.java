@@ -0,0 +1,217 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.HistoryProperties;
+import com.codeexecution.entity.SubmissionRecord;
+import com.codeexecution.entity.TestCaseOutcome;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.SubmissionHistoryEntry;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCaseResult;
+import com.codeexecution.repository.SubmissionRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a history of judged submissions and their test case outcomes.
+ * <p>
+ * Recording only builds the rows and puts them in a bounded buffer; a
+ * single writer thread drains it and inserts up to {@code history.batch-size}
+ * submissions per transaction, which Hibernate sends as JDBC batches. A
+ * verdict therefore never waits on the database. When the buffer is full,
+ * or a write fails, submissions are dropped and counted, not retried.
+ */
+@Slf4j
+@Service
+public class SubmissionHistoryService {
+    private static final String ACCEPTED = "Accepted";
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_MS = 5000;
+
+    private final HistoryProperties properties;
+    private final SubmissionRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+    private final BlockingQueue<SubmissionRecord> buffer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public SubmissionHistoryService(HistoryProperties properties, SubmissionRecordRepository repository,
+                                    TransactionTemplate transactionTemplate, MetricsService metricsService) {
+        this.properties = properties;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.metricsService = metricsService;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        metricsService.registerHistoryGauge(buffer::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Writes out what is still buffered before the database goes away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(SHUTDOWN_FLUSH_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * Queues {@code result} for writing, with an outcome for each of its
+     * test case results.
+     */
+    public void record(String problemId, ExecutionContext context, String sourceCode, ExecutionResult result,
+                       long durationMs) {
+        if (!running) {
+            return;
+        }
+        Set<Integer> skipped = new HashSet<>(result.getSkippedTestCases());
+        List<TestCaseOutcome> outcomes = new ArrayList<>(result.getTestCaseResults().size());
+        int index = 0;
+        for (TestCaseResult testCaseResult : result.getTestCaseResults()) {
+            // Fail-fast results leave out the test cases that were skipped
+            while (skipped.contains(index)) {
+                index++;
+            }
+            outcomes.add(outcome(index++, testCaseResult));
+        }
+        record(problemId, context, sourceCode, result, outcomes, durationMs);
+    }
+
+    /**
+     * Queues {@code result} for writing with outcomes already built with
+     * {@link #outcome}, for callers that do not keep the test case results.
+     */
+    public void record(String problemId, ExecutionContext context, String sourceCode, ExecutionResult result,
+                       List<TestCaseOutcome> outcomes, long durationMs) {
+        if (!running) {
+            return;
+        }
+        SubmissionRecord record = new SubmissionRecord();
+        record.setProblemId(problemId);
+        record.setUserId(context.tenant());
+        record.setPriority(context.priority().name().toLowerCase());
+        record.setSourceHash(sourceHash(sourceCode));
+        record.setPassed(result.isOverallPassed());
+        record.setPassedCount(result.getPassedCount());
+        record.setTotalCount(result.getTotalCount());
+        record.setDurationMs(durationMs);
+        record.setCreatedAt(Instant.now());
+        for (TestCaseOutcome outcome : outcomes) {
+            if (outcome != null) {
+                record.addOutcome(outcome);
+            }
+        }
+        record.setVerdict(result.isOverallPassed() ? ACCEPTED : record.getOutcomes().stream()
+                .filter(outcome -> !outcome.isPassed())
+                .map(TestCaseOutcome::getStatus)
+                .findFirst()
+                .orElse(null));
+
+        if (!buffer.offer(record)) {
+            metricsService.recordHistoryDropped("buffer_full", 1);
+        }
+    }
+
+    public TestCaseOutcome outcome(int testCaseIndex, TestCaseResult testCaseResult) {
+        TestCaseOutcome outcome = new TestCaseOutcome();
+        outcome.setTestCaseIndex(testCaseIndex);
+        outcome.setPassed(testCaseResult.isPassed());
+        SubmissionResult result = testCaseResult.getExecutionResult();
+        if (result != null) {
+            outcome.setToken(result.getToken());
+            outcome.setTime(result.getTime());
+            outcome.setMemory(result.getMemory());
+            if (result.getStatus() != null) {
+                outcome.setStatusId(result.getStatus().getId());
+                outcome.setStatus(result.getStatus().getDescription());
+            }
+        }
+        return outcome;
+    }
+
+    public Page<SubmissionHistoryEntry> getHistoryByProblem(String problemId, int page, int size) {
+        return repository.findByProblemIdOrderByCreatedAtDesc(problemId, PageRequest.of(page, size))
+                .map(record -> SubmissionHistoryEntry.of(record, false));
+    }
+
+    public Page<SubmissionHistoryEntry> getHistoryByUser(String userId, int page, int size) {
+        return repository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(page, size))
+                .map(record -> SubmissionHistoryEntry.of(record, false));
+    }
+
+    public Optional<SubmissionHistoryEntry> getSubmission(long id) {
+        return repository.findWithOutcomesById(id).map(record -> SubmissionHistoryEntry.of(record, true));
+    }
+
+    private void writeLoop() {
+        List<SubmissionRecord> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                SubmissionRecord first = buffer.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<SubmissionRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+            metricsService.recordHistoryWrite(batch.size(), System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} submissions to the history: {}", batch.size(), e.getMessage());
+            metricsService.recordHistoryDropped("write_failed", batch.size());
+        }
+    }
+
+    // Same normalization as the verdict cache key, so cosmetic edits share a hash
+    private static String sourceHash(String sourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(
+                    CodeExecutionService.normalizeSource(sourceCode).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
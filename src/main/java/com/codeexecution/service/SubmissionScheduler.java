@@ -0,0 +1,249 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.SchedulerProperties;
+import com.codeexecution.exception.DeadlineExceededException;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.ExecutionTrace;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Decides which Judge0 batch submission goes next when capacity is short.
+ * <p>
+ * Every (priority class, tenant) pair is a flow with weight
+ * {@code priorityWeight * tenantWeight}. Flows share the
+ * {@code maxInFlightBatches} slots by start-time fair queueing: a batch is
+ * tagged with {@code max(virtual time, its flow's last finish tag)} and
+ * costs {@code submissions / weight}, and the smallest tag goes first. A
+ * tenant that queues 500 test cases therefore only delays a newcomer by
+ * about one batch, and a newly active flow never waits behind a backlog.
+ * Rejudge batches are not dispatched while
+ * {@link SchedulerProperties#getRejudgeMaxInFlight()} of them are in flight:
+ * {@code rejudgeMaxShare} of {@code maxInFlightBatches}, rounded down but at
+ * least one. Other classes can still use every slot.
+ * <p>
+ * Batches are only dispatched while the {@code judge0RateLimiter} has
+ * permits left, so the queue order, not whichever call reaches the limiter
+ * first, decides who gets its budget. A batch still queued when its
+ * caller's deadline passes is dropped without being sent.
+ */
+@Slf4j
+@Component
+public class SubmissionScheduler {
+    private static final String RATE_LIMITER = "judge0RateLimiter";
+    private static final long MAX_RETRY_DELAY_MS = 1000;
+    // Idle flows' finish tags are pruned once there are this many
+    private static final int MAX_FLOWS = 1024;
+
+    private final SchedulerProperties properties;
+    private final ObjectProvider<RateLimiterRegistry> rateLimiterRegistry;
+    private final MetricsService metricsService;
+    private final Executor taskExecutor;
+    // Only hands expiries and retries to the task executor
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("submission-scheduler-timer").daemon().factory());
+
+    private final Map<ExecutionContext.Priority, PriorityQueue<Task<?>>> queues =
+            new EnumMap<>(ExecutionContext.Priority.class);
+    private final Map<ExecutionContext.Priority, Integer> inFlightByPriority =
+            new EnumMap<>(ExecutionContext.Priority.class);
+    private final Map<String, Double> finishTags = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    private int inFlight;
+    private boolean retryScheduled;
+
+    public SubmissionScheduler(SchedulerProperties properties, ObjectProvider<RateLimiterRegistry> rateLimiterRegistry,
+                               MetricsService metricsService, Executor taskExecutor) {
+        this.properties = properties;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.metricsService = metricsService;
+        this.taskExecutor = taskExecutor;
+
+        Comparator<Task<?>> byStartTag = Comparator.<Task<?>>comparingDouble(Task::startTag)
+                .thenComparingLong(Task::sequence);
+        for (ExecutionContext.Priority priority : ExecutionContext.Priority.values()) {
+            queues.put(priority, new PriorityQueue<>(byStartTag));
+            inFlightByPriority.put(priority, 0);
+            metricsService.registerSchedulerGauges(priority.name().toLowerCase(),
+                    () -> queueDepth(priority), () -> inFlight(priority));
+        }
+    }
+
+    /**
+     * Runs {@code submission} once it is its turn. {@code cost} is the number
+     * of Judge0 submissions it makes.
+     */
+    public <T> CompletableFuture<T> schedule(ExecutionContext context, int cost,
+                                             Supplier<CompletableFuture<T>> submission) {
+        if (context.isExpired()) {
+            return CompletableFuture.failedFuture(new DeadlineExceededException("Deadline passed before submission"));
+        }
+        Task<T> task;
+        synchronized (this) {
+            String flow = context.priority() + "/" + context.tenant();
+            double startTag = Math.max(virtualTime, finishTags.getOrDefault(flow, 0.0));
+            finishTags.put(flow, startTag + (double) Math.max(1, cost) / properties.weightOf(context));
+            task = new Task<>(context.priority(), startTag, sequence++, System.nanoTime(),
+                    context.stage("scheduler_wait"), submission, new CompletableFuture<>());
+            queues.get(context.priority()).add(task);
+        }
+        if (context.hasDeadline()) {
+            TimerHandoff.schedule(timer, taskExecutor, () -> expire(task), context.remainingMillis());
+        }
+        dispatch();
+        return task.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void expire(Task<?> task) {
+        synchronized (this) {
+            if (!queues.get(task.priority()).remove(task)) {
+                return; // Already dispatched
+            }
+        }
+        DeadlineExceededException expired = new DeadlineExceededException("Deadline passed while queued for Judge0");
+        task.queueWait().end(expired);
+        task.result().completeExceptionally(expired);
+    }
+
+    private void dispatch() {
+        List<Task<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < properties.getMaxInFlightBatches()) {
+                Task<?> next = nextEligible();
+                if (next == null) {
+                    break;
+                }
+                if (!hasRateBudget()) {
+                    scheduleRetry();
+                    break;
+                }
+                queues.get(next.priority()).poll();
+                virtualTime = next.startTag();
+                inFlight++;
+                inFlightByPriority.merge(next.priority(), 1, Integer::sum);
+                ready.add(next);
+            }
+            if (queues.values().stream().allMatch(PriorityQueue::isEmpty) && finishTags.size() > MAX_FLOWS) {
+                finishTags.values().removeIf(finishTag -> finishTag <= virtualTime);
+            }
+        }
+        ready.forEach(this::run);
+    }
+
+    // The head with the smallest start tag among classes that still have a free slot; ties go to the higher class
+    private Task<?> nextEligible() {
+        Task<?> next = null;
+        for (Map.Entry<ExecutionContext.Priority, PriorityQueue<Task<?>>> entry : queues.entrySet()) {
+            Task<?> head = entry.getValue().peek();
+            if (head == null || (entry.getKey() == ExecutionContext.Priority.REJUDGE
+                    && inFlightByPriority.get(entry.getKey()) >= properties.getRejudgeMaxInFlight())) {
+                continue;
+            }
+            if (next == null || head.startTag() < next.startTag()) {
+                next = head;
+            }
+        }
+        return next;
+    }
+
+    private <T> void run(Task<T> task) {
+        metricsService.recordSchedulerWait(task.priority().name().toLowerCase(), System.nanoTime() - task.queuedAt());
+        task.queueWait().end();
+        CompletableFuture<T> submission;
+        try {
+            submission = task.submission().get();
+        } catch (RuntimeException e) {
+            submission = CompletableFuture.failedFuture(e);
+        }
+        submission.whenComplete((value, e) -> {
+            synchronized (this) {
+                inFlight--;
+                inFlightByPriority.merge(task.priority(), -1, Integer::sum);
+            }
+            dispatch();
+            if (e != null) {
+                task.result().completeExceptionally(e);
+            } else {
+                task.result().complete(value);
+            }
+        });
+    }
+
+    private boolean hasRateBudget() {
+        RateLimiter rateLimiter = rateLimiter();
+        return rateLimiter == null || rateLimiter.getMetrics().getAvailablePermissions() > 0;
+    }
+
+    // Out of permits: look again once the limiter has refreshed
+    private void scheduleRetry() {
+        if (retryScheduled) {
+            return;
+        }
+        retryScheduled = true;
+        long delayMs = Math.min(MAX_RETRY_DELAY_MS,
+                Math.max(1, rateLimiter().getRateLimiterConfig().getLimitRefreshPeriod().toMillis()));
+        TimerHandoff.schedule(timer, taskExecutor, () -> {
+            synchronized (this) {
+                retryScheduled = false;
+            }
+            dispatch();
+        }, delayMs);
+    }
+
+    private RateLimiter rateLimiter() {
+        RateLimiterRegistry registry = rateLimiterRegistry.getIfAvailable();
+        return registry == null ? null : registry.rateLimiter(RATE_LIMITER);
+    }
+
+    /**
+     * Batches waiting for a slot in {@code priority}'s class or a more
+     * urgent one, roughly the backlog a new batch of that class queues
+     * behind.
+     */
+    public synchronized int getQueuedBatchesAhead(ExecutionContext.Priority priority) {
+        return queues.entrySet().stream()
+                .filter(entry -> entry.getKey().compareTo(priority) <= 0)
+                .mapToInt(entry -> entry.getValue().size())
+                .sum();
+    }
+
+    public synchronized int getInFlightBatches() {
+        return inFlight;
+    }
+
+    synchronized int queueDepth(ExecutionContext.Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    synchronized int inFlight(ExecutionContext.Priority priority) {
+        return inFlightByPriority.get(priority);
+    }
+
+    private record Task<T>(ExecutionContext.Priority priority, double startTag, long sequence, long queuedAt,
+                           ExecutionTrace.Stage queueWait, Supplier<CompletableFuture<T>> submission,
+                           CompletableFuture<T> result) {
+    }
+}
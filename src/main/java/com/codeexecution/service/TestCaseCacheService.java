@@ -0,0 +1,93 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.CacheConfig;
+import com.codeexecution.model.TestCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Front for the {@code testCases} cache. Goes through the {@link Cache} API
+ * rather than {@code @Cacheable} so callers in the same bean hit the cache
+ * too, and so entries can be warmed and evicted by problem.
+ */
+@Slf4j
+@Service
+public class TestCaseCacheService {
+
+    private final TestCaseLoaderService testCaseLoaderService;
+    private final Cache cache;
+
+    public TestCaseCacheService(TestCaseLoaderService testCaseLoaderService, CacheManager cacheManager) {
+        this.testCaseLoaderService = testCaseLoaderService;
+        this.cache = cacheManager.getCache(CacheConfig.TEST_CASES_CACHE);
+    }
+
+    public List<TestCase> getTestCases(String problemId) {
+        try {
+            return cache.get(problemId, () -> load(problemId));
+        } catch (Cache.ValueRetrievalException e) {
+            // Surface the loader's own exception, as a direct load would
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the problem's test cases and replaces whatever is cached for it.
+     */
+    public List<TestCase> warm(String problemId) {
+        List<TestCase> testCases = load(problemId);
+        cache.put(problemId, testCases);
+        return testCases;
+    }
+
+    /**
+     * Returns whether the problem was cached.
+     */
+    public boolean evict(String problemId) {
+        return cache.evictIfPresent(problemId);
+    }
+
+    public boolean isCached(String problemId) {
+        return cache.get(problemId) != null;
+    }
+
+    /**
+     * Cached problems with their weight in bytes.
+     */
+    public Map<String, Long> getCachedProblems() {
+        Map<String, Long> problems = new TreeMap<>();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            var nativeCache = caffeineCache.getNativeCache();
+            nativeCache.policy().eviction().ifPresent(eviction -> {
+                for (Object key : nativeCache.asMap().keySet()) {
+                    problems.put(String.valueOf(key), (long) eviction.weightOf(key).orElse(0));
+                }
+            });
+        }
+        return problems;
+    }
+
+    public long getWeightedSize() {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().policy().eviction()
+                    .map(eviction -> eviction.weightedSize().orElse(0))
+                    .orElse(0L);
+        }
+        return 0;
+    }
+
+    private List<TestCase> load(String problemId) {
+        log.info("Loading test cases for problem: {}", problemId);
+        return testCaseLoaderService.loadTestCasesFromFiles(problemId);
+    }
+}
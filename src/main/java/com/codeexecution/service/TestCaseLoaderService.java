@@ -8,45 +8,173 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class TestCaseLoaderService {
 
+    // Packs being written in the background, so a problem is only packed once at a time
+    private final Set<Path> packing = ConcurrentHashMap.newKeySet();
+    private final Executor packExecutor;
+    // Test set versions by problem, only kept while TestCaseWatcher invalidates them on file changes
+    private final Map<String, String> testSetVersions = new ConcurrentHashMap<>();
+    private volatile boolean cacheTestSetVersions;
+
+    public TestCaseLoaderService() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TestCaseLoaderService(Executor packExecutor) {
+        this.packExecutor = packExecutor;
+    }
+
     public List<TestCase> loadTestCasesFromFiles(String problemId) {
-        Path baseDir = Paths.get("problems", problemId);
-        List<TestCase> testCases = new ArrayList<>();
+        return loadTestCases(problemId, Paths.get("problems", problemId));
+    }
+
+    /**
+     * Returns descriptors of the problem's test cases without reading their
+     * content: slices of the memory-mapped pack when it is up to date, or
+     * else file-backed test cases that are read when their input is first
+     * needed. In the latter case the pack is (re)built in the background for
+     * the next load.
+     */
+    List<TestCase> loadTestCases(String problemId, Path baseDir) {
+        Path packFile = baseDir.resolve(TestCasePack.FILE_NAME);
+        long version = testSetHash(problemId, baseDir);
+        if (Files.exists(packFile)) {
+            try {
+                TestCasePack pack = TestCasePack.open(packFile);
+                if (pack.getTestSetVersion() == version) {
+                    return requireTestCases(problemId, pack.getTestCases());
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable test case pack for problem {}: {}", problemId, e.getMessage());
+            }
+        }
+
+        List<Path[]> pairs = listTestCaseFiles(problemId, baseDir);
+        schedulePack(problemId, packFile, version, pairs);
+        return requireTestCases(problemId, pairs.stream()
+                .map(pair -> TestCase.ofFiles(pair[0], size(pair[0]), pair[1], size(pair[1])))
+                .toList());
+    }
+
+    private void schedulePack(String problemId, Path packFile, long version, List<Path[]> pairs) {
+        if (!packing.add(packFile)) {
+            return;
+        }
+        packExecutor.execute(() -> {
+            try {
+                TestCasePack.write(packFile, version, pairs);
+                log.info("Packed test cases for problem: {}", problemId);
+            } catch (IOException e) {
+                log.warn("Could not pack test cases for problem {}: {}", problemId, e.getMessage());
+            } finally {
+                packing.remove(packFile);
+            }
+        });
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new TestCaseLoadException("Error reading test case file: " + file, e);
+        }
+    }
 
+    /**
+     * Input files in name order, each paired with its output file.
+     */
+    List<Path[]> listTestCaseFiles(String problemId, Path baseDir) {
+        List<Path[]> pairs = new ArrayList<>();
         try (Stream<Path> inputFiles = Files.list(baseDir.resolve("input"))) {
-            inputFiles.sorted().forEach(inputPath -> {
-                try {
-                    String input = Files.readString(inputPath);
-                    String fileName = inputPath.getFileName().toString();
-                    Path outputPath = baseDir.resolve("output").resolve(fileName.replace("input", "output"));
-                    if (Files.exists(outputPath)) {
-                        String output = Files.readString(outputPath);
-                        testCases.add(new TestCase(input, output));
-                    } else {
-                        log.error("Output file not found for input: {}", fileName);
-                    }
-                } catch (IOException e) {
-                    log.error("Error reading test case file: {}", inputPath, e);
+            for (Path inputPath : inputFiles.sorted().toList()) {
+                String fileName = inputPath.getFileName().toString();
+                Path outputPath = baseDir.resolve("output").resolve(fileName.replace("input", "output"));
+                if (Files.exists(outputPath)) {
+                    pairs.add(new Path[]{inputPath, outputPath});
+                } else {
+                    log.error("Output file not found for input: {}", fileName);
                 }
-            });
+            }
         } catch (IOException e) {
             log.error("Error accessing test case directory for problem: {}", problemId, e);
             throw new TestCaseLoadException("Error loading test cases for problem: " + problemId, e);
         }
+        return pairs;
+    }
 
+    private List<TestCase> requireTestCases(String problemId, List<TestCase> testCases) {
         if (testCases.isEmpty()) {
             throw new TestCaseLoadException("No test cases found for problem: " + problemId);
         }
         return testCases;
     }
 
+    /**
+     * Cheap fingerprint of a problem's test set built from file names, sizes
+     * and modification times; it changes whenever a test file is edited,
+     * added or removed. Remembered per problem while versions are cached,
+     * so the files are only listed again after an invalidation.
+     */
+    public String getTestSetVersion(String problemId) {
+        if (!cacheTestSetVersions) {
+            return computeTestSetVersion(problemId);
+        }
+        return testSetVersions.computeIfAbsent(problemId, this::computeTestSetVersion);
+    }
+
+    /**
+     * Turned on by a watcher that calls {@link #invalidateTestSetVersion}
+     * for every change; without one each call lists the files.
+     */
+    void setCacheTestSetVersions(boolean cacheTestSetVersions) {
+        this.cacheTestSetVersions = cacheTestSetVersions;
+        testSetVersions.clear();
+    }
+
+    // Waits for a version being computed for the problem, so a stale one is never left behind
+    void invalidateTestSetVersion(String problemId) {
+        testSetVersions.remove(problemId);
+    }
+
+    void invalidateTestSetVersions() {
+        testSetVersions.clear();
+    }
+
+    private String computeTestSetVersion(String problemId) {
+        return Long.toHexString(testSetHash(problemId, Paths.get("problems", problemId)));
+    }
+
+    private long testSetHash(String problemId, Path baseDir) {
+        long hash = 17;
+
+        for (String dir : List.of("input", "output")) {
+            try (Stream<Path> files = Files.list(baseDir.resolve(dir))) {
+                for (Path file : files.sorted().toList()) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    hash = 31 * hash + file.getFileName().toString().hashCode();
+                    hash = 31 * hash + attributes.size();
+                    hash = 31 * hash + attributes.lastModifiedTime().toMillis();
+                }
+            } catch (IOException e) {
+                throw new TestCaseLoadException("Error reading test set version for problem: " + problemId, e);
+            }
+        }
+        return hash;
+    }
+
     public static class TestCaseLoadException extends RuntimeException {
         public TestCaseLoadException(String message) {
             super(message);
@@ -0,0 +1,134 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A problem's test cases packed into one file that is memory-mapped on load.
+ * Opening a pack only reads its index; inputs and expected outputs stay in
+ * the page cache and are handed out as {@link TestCase} slices.
+ *
+ * <pre>
+ * int magic, int formatVersion, long testSetVersion, int count,
+ * count x (long inputOffset, int inputLength, long outputOffset, int outputLength),
+ * data
+ * </pre>
+ *
+ * Packs are limited to 2 GB, the most a single mapping can address.
+ */
+final class TestCasePack {
+    static final String FILE_NAME = "testcases.pack";
+
+    private static final int MAGIC = 0x54435041; // "TCPA"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int INDEX_ENTRY_BYTES = 8 + 4 + 8 + 4;
+
+    private final long testSetVersion;
+    private final List<TestCase> testCases;
+
+    private TestCasePack(long testSetVersion, List<TestCase> testCases) {
+        this.testSetVersion = testSetVersion;
+        this.testCases = testCases;
+    }
+
+    long getTestSetVersion() {
+        return testSetVersion;
+    }
+
+    List<TestCase> getTestCases() {
+        return testCases;
+    }
+
+    static TestCasePack open(Path packFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(packFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Pack too large to map: " + packFile);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.BIG_ENDIAN);
+
+            if (data.getInt(0) != MAGIC || data.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a test case pack: " + packFile);
+            }
+            long testSetVersion = data.getLong(8);
+            int count = data.getInt(16);
+
+            List<TestCase> testCases = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+                ByteBuffer input = data.slice((int) data.getLong(entry), data.getInt(entry + 8));
+                ByteBuffer output = data.slice((int) data.getLong(entry + 12), data.getInt(entry + 20));
+                testCases.add(TestCase.ofSlices(input, output));
+            }
+            return new TestCasePack(testSetVersion, List.copyOf(testCases));
+        }
+    }
+
+    /**
+     * Writes the given input/output file pairs into {@code packFile}. File
+     * contents are copied channel to channel, without going through the heap.
+     * The pack is written next to its final location and moved into place,
+     * so readers never see a partial file.
+     */
+    static void write(Path packFile, long testSetVersion, List<Path[]> pairs) throws IOException {
+        // Checked up front so an oversized test set is not copied only to be thrown away
+        long size = HEADER_BYTES + (long) pairs.size() * INDEX_ENTRY_BYTES;
+        for (Path[] pair : pairs) {
+            size += Files.size(pair[0]) + Files.size(pair[1]);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Test cases too large to pack: " + size + " bytes");
+        }
+
+        Path tempFile = Files.createTempFile(packFile.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + pairs.size() * INDEX_ENTRY_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(testSetVersion).putInt(pairs.size());
+
+                long position = header.capacity();
+                for (Path[] pair : pairs) {
+                    long inputLength = copy(pair[0], out, position);
+                    long outputLength = copy(pair[1], out, position + inputLength);
+                    header.putLong(position).putInt((int) inputLength)
+                            .putLong(position + inputLength).putInt((int) outputLength);
+                    position += inputLength + outputLength;
+                }
+                // Files may have grown while being copied
+                if (position > Integer.MAX_VALUE) {
+                    throw new IOException("Test cases too large to pack: " + position + " bytes");
+                }
+
+                header.flip();
+                out.write(header, 0);
+            }
+            Files.move(tempFile, packFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static long copy(Path source, FileChannel out, long position) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = in.size();
+            long copied = 0;
+            while (copied < size) {
+                copied += in.transferTo(copied, size - copied, out.position(position + copied));
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.TestCaseCacheProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Keeps the {@code testCases} cache and the test set versions in line with
+ * the files under {@code problems/}. A change evicts the problem at once; if
+ * it was cached it is reloaded after its files have been quiet for a moment,
+ * so a test set being copied in is loaded once rather than per file.
+ */
+@Slf4j
+@Component
+public class TestCaseWatcher {
+
+    private static final Path PROBLEMS_DIR = Paths.get("problems");
+    private static final List<String> TEST_CASE_DIRS = List.of("input", "output");
+
+    private final TestCaseCacheService testCaseCacheService;
+    private final TestCaseLoaderService testCaseLoaderService;
+    private final TestCaseCacheProperties properties;
+    // Watched directory -> problem id, or null for the problems directory itself
+    private final Map<WatchKey, String> problemsByKey = new HashMap<>();
+    // Changed problems awaiting reload, by the time of their last change; only touched by the watcher thread
+    private final Map<String, PendingReload> pendingReloads = new HashMap<>();
+
+    private WatchService watchService;
+
+    public TestCaseWatcher(TestCaseCacheService testCaseCacheService, TestCaseLoaderService testCaseLoaderService,
+                           TestCaseCacheProperties properties) {
+        this.testCaseCacheService = testCaseCacheService;
+        this.testCaseLoaderService = testCaseLoaderService;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isWatch() || !Files.isDirectory(PROBLEMS_DIR)) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            register(PROBLEMS_DIR, null);
+            try (Stream<Path> problemDirs = Files.list(PROBLEMS_DIR)) {
+                problemDirs.filter(Files::isDirectory).forEach(this::registerProblem);
+            }
+        } catch (IOException e) {
+            log.warn("Not watching {} for test case changes: {}", PROBLEMS_DIR.toAbsolutePath(), e.getMessage());
+            close();
+            return;
+        }
+        // Every change is seen from here on, so versions no longer need to be recomputed per request
+        testCaseLoaderService.setCacheTestSetVersions(true);
+        Thread.ofPlatform().daemon().name("test-case-watcher").start(this::watch);
+        log.info("Watching {} for test case changes", PROBLEMS_DIR.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (watchService == null) {
+            return;
+        }
+        testCaseLoaderService.setCacheTestSetVersions(false);
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Error closing test case watcher", e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(properties.getReloadQuietPeriodMs(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handle(key);
+                }
+                reloadQuietProblems();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Test case watcher stopped");
+        }
+    }
+
+    private void handle(WatchKey key) {
+        Path dir = (Path) key.watchable();
+        String problemId = problemsByKey.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                log.warn("Missed test case file events; invalidating all cached problems");
+                testCaseLoaderService.invalidateTestSetVersions();
+                testCaseCacheService.getCachedProblems().keySet().forEach(this::changed);
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            String name = child.getFileName().toString();
+            if (problemId == null) {
+                // problems/<id> added or removed
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                    registerProblem(child);
+                }
+                changed(name);
+            } else if (dir.getFileName().toString().equals(problemId)) {
+                // problems/<id>: a new test case directory, or a freshly written pack to switch the entry over to
+                if (TEST_CASE_DIRS.contains(name)) {
+                    if (event.kind() == ENTRY_CREATE) {
+                        register(child, problemId);
+                    }
+                    changed(problemId);
+                } else if (name.equals(TestCasePack.FILE_NAME) && event.kind() != ENTRY_DELETE) {
+                    changed(problemId);
+                }
+            } else {
+                changed(problemId);
+            }
+        }
+        if (!key.reset()) {
+            problemsByKey.remove(key);
+        }
+    }
+
+    private void changed(String problemId) {
+        testCaseLoaderService.invalidateTestSetVersion(problemId);
+        boolean cached = testCaseCacheService.evict(problemId);
+        pendingReloads.merge(problemId, new PendingReload(System.nanoTime(), cached),
+                (previous, current) -> new PendingReload(current.changedAt(), previous.cached() || current.cached()));
+    }
+
+    private void reloadQuietProblems() {
+        long quietSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getReloadQuietPeriodMs());
+        for (Iterator<Map.Entry<String, PendingReload>> it = pendingReloads.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, PendingReload> entry = it.next();
+            if (entry.getValue().changedAt() - quietSince > 0) {
+                continue;
+            }
+            it.remove();
+            String problemId = entry.getKey();
+            if (!entry.getValue().cached() || !Files.isDirectory(PROBLEMS_DIR.resolve(problemId))) {
+                log.debug("Invalidated test cases for problem: {}", problemId);
+                continue;
+            }
+            try {
+                testCaseCacheService.warm(problemId);
+                log.info("Reloaded test cases for problem: {}", problemId);
+            } catch (RuntimeException e) {
+                log.warn("Could not reload test cases for problem {}: {}", problemId, e.getMessage());
+            }
+        }
+    }
+
+    private void registerProblem(Path problemDir) {
+        String problemId = problemDir.getFileName().toString();
+        register(problemDir, problemId);
+        for (String dir : TEST_CASE_DIRS) {
+            Path testCaseDir = problemDir.resolve(dir);
+            if (Files.isDirectory(testCaseDir)) {
+                register(testCaseDir, problemId);
+            }
+        }
+    }
+
+    private void register(Path dir, String problemId) {
+        try {
+            problemsByKey.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), problemId);
+        } catch (IOException e) {
+            log.warn("Could not watch {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private record PendingReload(long changedAt, boolean cached) {
+    }
+}
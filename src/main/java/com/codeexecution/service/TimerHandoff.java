@@ -0,0 +1,42 @@
+package com.codeexecution.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands work from a timer thread to the task executor once a delay has
+ * passed. In platform mode the executor turns work away when its queue is
+ * full, and a rejection thrown on the timer thread reaches nobody, so the
+ * handoff is tried again a little later instead of being lost.
+ */
+@Slf4j
+final class TimerHandoff {
+    static final long RETRY_DELAY_MS = 100;
+
+    private TimerHandoff() {
+    }
+
+    /**
+     * @return the timer task of the first attempt; cancelling it only stops
+     *         the handoff while that attempt has not run yet
+     */
+    static ScheduledFuture<?> schedule(ScheduledExecutorService timer, Executor executor, Runnable task, long delayMs) {
+        return timer.schedule(() -> handOff(timer, executor, task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void handOff(ScheduledExecutorService timer, Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Task executor is full, handing off again in {}ms", RETRY_DELAY_MS);
+            if (!timer.isShutdown()) {
+                timer.schedule(() -> handOff(timer, executor, task), RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
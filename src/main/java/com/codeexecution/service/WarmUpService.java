@@ -0,0 +1,127 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.WarmUpProperties;
+import com.codeexecution.model.SubmissionBatchResult;
+import com.codeexecution.model.SubmissionResponse;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Pays the first-request costs up front: loads the test cases of hot
+ * problems into the cache, opens pooled connections to Judge0 and runs the
+ * Jackson paths for submissions and results once. Each step is best effort;
+ * a failure is logged and the service starts anyway.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarmUpService {
+
+    private static final Path PROBLEMS_DIR = Paths.get("problems");
+    private static final String SAMPLE_SOURCE = "public class Main { public static void main(String[] args) { } }";
+    private static final String SAMPLE_SUBMISSIONS = "[{\"token\":\"warm-up\"}]";
+    private static final String SAMPLE_RESULTS = "{\"submissions\":[{\"token\":\"warm-up\",\"stdout\":\"1\\n\","
+            + "\"status\":{\"id\":3,\"description\":\"Accepted\"},\"time\":\"0.01\",\"memory\":1024}]}";
+
+    private final WarmUpProperties properties;
+    private final TestCaseCacheService testCaseCacheService;
+    private final Judge0Service judge0Service;
+    private final ObjectMapper objectMapper;
+    private final Executor taskExecutor;
+
+    /**
+     * Runs the warm-up and blocks until it is done or
+     * {@code warm-up.timeout-ms} has passed.
+     */
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        warmSerialization();
+        List<CompletableFuture<?>> steps = new ArrayList<>();
+        for (String problemId : hotProblems()) {
+            steps.add(CompletableFuture.runAsync(() -> warmTestCases(problemId), taskExecutor));
+        }
+        for (int i = 0; i < properties.getJudge0Connections(); i++) {
+            steps.add(judge0Service.getAbout().exceptionally(e -> {
+                log.warn("Could not open a warm-up connection to Judge0: {}", Judge0Service.unwrap(e).getMessage());
+                return null;
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(steps.toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            log.info("Warm-up finished in {}ms", System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("Warm-up did not finish within {}ms; continuing startup", properties.getTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private List<String> hotProblems() {
+        if (!properties.getProblems().isEmpty()) {
+            return properties.getProblems();
+        }
+        if (!Files.isDirectory(PROBLEMS_DIR)) {
+            return List.of();
+        }
+        try (Stream<Path> problemDirs = Files.list(PROBLEMS_DIR)) {
+            return problemDirs.filter(Files::isDirectory)
+                    .map(dir -> dir.getFileName().toString())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list problems for warm-up: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void warmTestCases(String problemId) {
+        try {
+            List<TestCase> testCases = testCaseCacheService.getTestCases(problemId);
+            log.debug("Warmed {} test cases for problem: {}", testCases.size(), problemId);
+        } catch (RuntimeException e) {
+            log.warn("Could not warm test cases for problem {}: {}", problemId, e.getMessage());
+        }
+    }
+
+    private void warmSerialization() {
+        try {
+            TestCase testCase = new TestCase("1\n", "1\n");
+            judge0Service.writeBatch(List.of(CodeExecutionService.createSubmissionRequest(SAMPLE_SOURCE, testCase)),
+                    OutputStream.nullOutputStream());
+            objectMapper.readValue(SAMPLE_SUBMISSIONS,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, SubmissionResponse.class));
+            SubmissionResult result = objectMapper.readValue(SAMPLE_RESULTS, SubmissionBatchResult.class)
+                    .getSubmissions().get(0);
+            objectMapper.writeValueAsString(CodeExecutionService.aggregateResults(
+                    List.of(new TestCaseResult(testCase, result, true))));
+        } catch (Exception e) {
+            log.warn("Could not warm serialization: {}", e.getMessage());
+        }
+    }
+}
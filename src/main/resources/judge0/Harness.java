@@ -0,0 +1,111 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Runs the compiled Main class once per test input inside a single sandbox
+ * run. Each test case gets a fresh class loader, so static state does not
+ * leak between cases, and its output is framed by marker lines:
+ *
+ * <pre>
+ * DELIM BEGIN i
+ * ...program output...
+ * DELIM END i millis OK|RE exception|EXIT
+ * </pre>
+ *
+ * Kept compatible with Java 8, since it is compiled by Judge0's JDK.
+ */
+public class Harness {
+    private static final OutputStream RAW_OUT = new FileOutputStream(FileDescriptor.out);
+
+    private static volatile String delimiter;
+    private static volatile int current = -1;
+    private static volatile boolean ended = true;
+    private static volatile PrintStream caseOut;
+
+    public static void main(String[] args) throws Exception {
+        delimiter = args[0];
+        int count = Integer.parseInt(args[1]);
+        URL classes = new File("classes").toURI().toURL();
+
+        // System.exit() inside the program still closes the current case
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                if (!ended) {
+                    caseOut.flush();
+                    marker("\n" + delimiter + " END " + current + " -1 EXIT\n");
+                }
+            }
+        }));
+
+        for (int i = 0; i < count; i++) {
+            byte[] input = Files.readAllBytes(Paths.get("tests", i + ".in"));
+            System.setIn(new ByteArrayInputStream(input));
+            caseOut = new PrintStream(new BufferedOutputStream(new NonClosingOutputStream(RAW_OUT), 1 << 16), false);
+            System.setOut(caseOut);
+
+            URLClassLoader loader = new URLClassLoader(new URL[]{classes}, ClassLoader.getSystemClassLoader().getParent());
+            marker(delimiter + " BEGIN " + i + "\n");
+            current = i;
+            ended = false;
+
+            String status = "OK";
+            long start = System.nanoTime();
+            try {
+                Method main = loader.loadClass("Main").getMethod("main", String[].class);
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                status = "RE " + e.getCause().getClass().getName();
+                e.getCause().printStackTrace();
+            } catch (Throwable e) {
+                status = "RE " + e.getClass().getName();
+                e.printStackTrace();
+            }
+            long millis = (System.nanoTime() - start) / 1000000L;
+
+            caseOut.flush();
+            ended = true;
+            marker("\n" + delimiter + " END " + i + " " + millis + " " + status + "\n");
+            loader.close();
+        }
+    }
+
+    private static void marker(String line) {
+        try {
+            RAW_OUT.write(line.getBytes(StandardCharsets.UTF_8));
+            RAW_OUT.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Programs that close System.out must not close the stream markers are written to
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
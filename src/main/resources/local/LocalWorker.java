@@ -0,0 +1,249 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Long-lived child JVM that runs compiled programs on request. Jobs arrive
+ * on the real stdin and replies leave on the real stdout as length-prefixed
+ * frames; the program itself sees a fresh System.in/out/err per job and is
+ * loaded by a fresh class loader, so static state does not leak between
+ * jobs.
+ *
+ * <pre>
+ * job:   int classCount, (utf name, int length, bytes)*, int stdinLength, stdin, long cpuLimitMillis
+ * reply: int status (0 OK, 1 RE, 2 TLE, 3 EXIT), utf message, int length, stdout, int length, stderr,
+ *        long cpuNanos, long wallNanos, long memoryKb
+ * </pre>
+ *
+ * CPU time is summed over every thread the job started, so work moved to
+ * spawned threads still counts. A job that exceeds its CPU limit is answered
+ * with TLE and the JVM halts,
+ * since a runaway thread cannot be stopped safely; System.exit() inside the
+ * program is answered with EXIT from a shutdown hook. In both cases the
+ * parent replaces the worker.
+ */
+public class LocalWorker {
+    private static final int OK = 0;
+    private static final int RUNTIME_ERROR = 1;
+    private static final int TIME_LIMIT_EXCEEDED = 2;
+    private static final int EXIT = 3;
+    private static final int MAX_OUTPUT_BYTES = 8 * 1024 * 1024;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final DataOutputStream REPLY =
+            new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+    private static volatile Job current;
+
+    public static void main(String[] args) throws Exception {
+        DataInputStream jobs = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Job job = current;
+            if (job != null) {
+                job.reply(EXIT, "");
+            }
+        }));
+
+        while (true) {
+            Job job;
+            try {
+                job = Job.read(jobs);
+            } catch (EOFException e) {
+                return; // Parent closed the pipe
+            }
+            job.run();
+        }
+    }
+
+    private static final class Job {
+        private final Map<String, byte[]> classes;
+        private final byte[] stdin;
+        private final long cpuLimitNanos;
+        private final ByteArrayOutputStream stdout = new LimitedOutputStream();
+        private final ByteArrayOutputStream stderr = new LimitedOutputStream();
+        private volatile Thread thread;
+        private ThreadGroup group;
+        // Threads that were already running before the job, i.e. the worker's own and the JVM's
+        private final Set<Long> workerThreads = new HashSet<>();
+        // Highest CPU time seen per job thread, which outlives threads that have ended
+        private final Map<Long, Long> cpuByThread = new HashMap<>();
+        private long startNanos;
+        private boolean replied;
+
+        private Job(Map<String, byte[]> classes, byte[] stdin, long cpuLimitMillis) {
+            this.classes = classes;
+            this.stdin = stdin;
+            this.cpuLimitNanos = cpuLimitMillis * 1_000_000L;
+        }
+
+        static Job read(DataInputStream in) throws IOException {
+            int classCount = in.readInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            byte[] stdin = new byte[in.readInt()];
+            in.readFully(stdin);
+            return new Job(classes, stdin, in.readLong());
+        }
+
+        void run() throws InterruptedException {
+            System.setIn(new ByteArrayInputStream(stdin));
+            System.setOut(new PrintStream(stdout, true));
+            System.setErr(new PrintStream(stderr, true));
+
+            String[] error = new String[1];
+            // Threads the program starts join this group unless they pick another
+            group = new ThreadGroup("job");
+            thread = new Thread(group, () -> {
+                try {
+                    ClassLoader loader = new JobClassLoader(classes);
+                    Method main = loader.loadClass("Main").getMethod("main", String[].class);
+                    main.invoke(null, (Object) new String[0]);
+                } catch (InvocationTargetException e) {
+                    error[0] = e.getCause().getClass().getName();
+                    e.getCause().printStackTrace();
+                } catch (Throwable e) {
+                    error[0] = e.getClass().getName();
+                    e.printStackTrace();
+                }
+            }, "main");
+            for (long id : THREADS.getAllThreadIds()) {
+                workerThreads.add(id);
+            }
+            startNanos = System.nanoTime();
+            current = this;
+            thread.start();
+
+            while (running()) {
+                if (thread.isAlive()) {
+                    thread.join(10);
+                } else {
+                    Thread.sleep(10);
+                }
+                if (cpuNanos() > cpuLimitNanos) {
+                    reply(TIME_LIMIT_EXCEEDED, "");
+                    Runtime.getRuntime().halt(0);
+                }
+            }
+            reply(error[0] == null ? OK : RUNTIME_ERROR, error[0] == null ? "" : error[0]);
+            current = null;
+        }
+
+        synchronized void reply(int status, String message) {
+            if (replied) {
+                return;
+            }
+            replied = true;
+            System.out.flush();
+            System.err.flush();
+            long cpuNanos = cpuNanos();
+            Runtime runtime = Runtime.getRuntime();
+            try {
+                REPLY.writeInt(status);
+                REPLY.writeUTF(message);
+                writeBytes(stdout.toByteArray());
+                writeBytes(stderr.toByteArray());
+                REPLY.writeLong(cpuNanos);
+                REPLY.writeLong(System.nanoTime() - startNanos);
+                REPLY.writeLong((runtime.totalMemory() - runtime.freeMemory()) / 1024);
+                REPLY.flush();
+            } catch (IOException e) {
+                Runtime.getRuntime().halt(2);
+            }
+        }
+
+        // Like a JVM, a program runs until its last non-daemon thread has ended
+        private boolean running() {
+            if (thread.isAlive()) {
+                return true;
+            }
+            Thread[] threads = new Thread[group.activeCount() + 1];
+            int count = group.enumerate(threads);
+            for (int i = 0; i < count; i++) {
+                if (!threads[i].isDaemon()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized long cpuNanos() {
+            for (long id : THREADS.getAllThreadIds()) {
+                if (!workerThreads.contains(id)) {
+                    long cpu = THREADS.getThreadCpuTime(id);
+                    if (cpu > 0) {
+                        cpuByThread.merge(id, cpu, Math::max);
+                    }
+                }
+            }
+            long total = 0;
+            for (long cpu : cpuByThread.values()) {
+                total += cpu;
+            }
+            return total;
+        }
+
+        private static void writeBytes(byte[] bytes) throws IOException {
+            REPLY.writeInt(bytes.length);
+            REPLY.write(bytes);
+        }
+    }
+
+    private static final class JobClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        JobClassLoader(Map<String, byte[]> classes) {
+            super(ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Keeps the first MAX_OUTPUT_BYTES and drops the rest, so a program that
+     * prints forever runs into its time limit instead of exhausting the heap.
+     */
+    private static final class LimitedOutputStream extends ByteArrayOutputStream {
+        @Override
+        public synchronized void write(int b) {
+            if (count < MAX_OUTPUT_BYTES) {
+                super.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, Math.max(0, Math.min(len, MAX_OUTPUT_BYTES - count)));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.codeexecution.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A source of random delays in milliseconds, parsed from specs like
+ * {@code fixed:50}, {@code uniform:10,100}, {@code exp:50} (mean) or
+ * {@code lognormal:50,0.5} (median, sigma).
+ */
+@FunctionalInterface
+public interface Distribution {
+
+    long sampleMs();
+
+    static Distribution parse(String spec) {
+        String[] parts = spec.split(":", 2);
+        String[] args = parts.length > 1 ? parts[1].split(",") : new String[0];
+        return switch (parts[0]) {
+            case "fixed" -> {
+                long value = Long.parseLong(args[0]);
+                yield () -> value;
+            }
+            case "uniform" -> {
+                long min = Long.parseLong(args[0]);
+                long max = Long.parseLong(args[1]);
+                yield () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+            }
+            case "exp" -> {
+                double mean = Double.parseDouble(args[0]);
+                yield () -> Math.round(-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+            }
+            case "lognormal" -> {
+                double mu = Math.log(Double.parseDouble(args[0]));
+                double sigma = Double.parseDouble(args[1]);
+                yield () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+            }
+            default -> throw new IllegalArgumentException("Unknown distribution: " + spec);
+        };
+    }
+}
@@ -0,0 +1,336 @@
+package com.codeexecution.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for Judge0 that implements the endpoints this service
+ * uses: {@code POST /submissions/batch}, {@code GET /submissions/batch},
+ * {@code GET /submissions/{token}}, {@code DELETE /submissions/{token}} and
+ * {@code GET /about}, plus {@code callback_url} delivery.
+ * <p>
+ * Code is never run. A submission is "accepted" with its expected output as
+ * stdout after a sampled execution time on one of {@code workers} simulated
+ * workers, so queueing delay emerges once submissions outpace the workers.
+ * HTTP latency, error and throttling rates are configurable.
+ * <p>
+ * Standalone: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.codeexecution.loadtest.Judge0StubServer -Dexec.args="--port=2358 --workers=8"}
+ */
+@Slf4j
+public class Judge0StubServer implements AutoCloseable {
+    private static final Map<Integer, String> STATUSES = Map.of(
+            1, "In Queue", 2, "Processing", 3, "Accepted", 4, "Wrong Answer");
+    private static final long RETENTION_MS = 5 * 60 * 1000;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+    // Time at which each simulated worker becomes free
+    private final PriorityQueue<Long> workerFreeAt = new PriorityQueue<>();
+    private final ExecutorService handlerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService callbackScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final HttpClient callbackClient = HttpClient.newHttpClient();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    public Judge0StubServer(Settings settings) {
+        this.settings = settings;
+        for (int i = 0; i < settings.getWorkers(); i++) {
+            workerFreeAt.add(0L);
+        }
+    }
+
+    public Judge0StubServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(settings.getPort()), 1024);
+        server.setExecutor(handlerExecutor);
+        server.createContext("/submissions", this::handle);
+        server.createContext("/about", this::about);
+        server.createContext("/stats", exchange -> respond(exchange, 200, stats()));
+        server.start();
+        log.info("Judge0 stub listening on {}", baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> stats.put(entry.getKey(), entry.getValue().get()));
+        stats.put("pending", submissions.values().stream().filter(s -> !s.isFinished()).count());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        callbackScheduler.shutdownNow();
+        handlerExecutor.shutdownNow();
+    }
+
+    // Used by the application's warm-up to open connections
+    private void about(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            count("GET /about");
+            respond(exchange, 200, Map.of("version", "stub"));
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            boolean batch = path.equals("/submissions/batch");
+            String endpoint = method + " " + (batch ? path : "/submissions/{token}");
+            count(endpoint);
+
+            sleep(settings.getLatency().sampleMs());
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < settings.getErrorRate()) {
+                count("http_500");
+                respond(exchange, 500, Map.of("error", "injected failure"));
+                return;
+            }
+            if (roll < settings.getErrorRate() + settings.getThrottleRate() || isOverloaded(method)) {
+                count("http_429");
+                respond(exchange, 429, Map.of("error", "too many requests"));
+                return;
+            }
+
+            if (batch && method.equals("POST")) {
+                respond(exchange, 201, create(exchange));
+            } else if (batch && method.equals("GET")) {
+                String tokens = query(exchange, "tokens");
+                List<Map<String, Object>> results = new ArrayList<>();
+                for (String token : tokens == null ? new String[0] : tokens.split(",")) {
+                    Submission submission = submissions.get(token);
+                    results.add(submission == null ? null : submission.toJson());
+                }
+                respond(exchange, 200, Map.of("submissions", results));
+            } else {
+                String token = path.substring("/submissions/".length());
+                Submission submission = submissions.get(token);
+                if (submission == null) {
+                    respond(exchange, 404, Map.of("error", "Not found"));
+                } else if (method.equals("DELETE")) {
+                    submissions.remove(token);
+                    respond(exchange, 200, Map.of("token", token));
+                } else {
+                    respond(exchange, 200, submission.toJson());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, String>> create(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        List<Map<String, Object>> requests = (List<Map<String, Object>>) body.get("submissions");
+        List<Map<String, String>> tokens = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        // Text fields are echoed as they came, so with base64_encoded=true they are encoded already
+        boolean base64 = "true".equals(query(exchange, "base64_encoded"));
+
+        for (Map<String, Object> request : requests) {
+            long startAt;
+            long finishAt;
+            synchronized (workerFreeAt) {
+                startAt = Math.max(now + settings.getQueueDelay().sampleMs(), workerFreeAt.poll());
+                finishAt = startAt + settings.getExecutionTime().sampleMs();
+                workerFreeAt.add(finishAt);
+            }
+            boolean wrong = ThreadLocalRandom.current().nextDouble() < settings.getWrongAnswerRate();
+            Submission submission = new Submission(UUID.randomUUID().toString(),
+                    (String) request.get("expected_output"), base64, startAt, finishAt, wrong);
+            submissions.put(submission.token, submission);
+            tokens.add(Map.of("token", submission.token));
+
+            // Forget finished submissions after a while so long runs don't grow without bound
+            callbackScheduler.schedule(() -> submissions.remove(submission.token),
+                    finishAt - now + RETENTION_MS, TimeUnit.MILLISECONDS);
+
+            Object callbackUrl = request.get("callback_url");
+            if (callbackUrl != null) {
+                callbackScheduler.schedule(() -> sendCallback(callbackUrl.toString(), submission),
+                        finishAt - now, TimeUnit.MILLISECONDS);
+            }
+        }
+        count("submissions_created", requests.size());
+        return tokens;
+    }
+
+    private boolean isOverloaded(String method) {
+        if (settings.getMaxPending() <= 0 || !method.equals("POST")) {
+            return false;
+        }
+        return submissions.values().stream().filter(s -> !s.isFinished()).count() >= settings.getMaxPending();
+    }
+
+    private void sendCallback(String url, Submission submission) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(submission.toCallbackJson())))
+                    .build();
+            callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            count("callbacks_sent");
+        } catch (IOException e) {
+            log.warn("Could not send callback for {}: {}", submission.token, e.getMessage());
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String query(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private void count(String name) {
+        count(name, 1);
+    }
+
+    private void count(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Judge0StubServer stub = new Judge0StubServer(Settings.fromArgs(args)).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        Thread.currentThread().join();
+    }
+
+    private record Submission(String token, String expectedOutput, boolean base64, long startAt, long finishAt,
+                              boolean wrong) {
+
+        boolean isFinished() {
+            return System.currentTimeMillis() >= finishAt;
+        }
+
+        Map<String, Object> toJson() {
+            long now = System.currentTimeMillis();
+            int status = now < startAt ? 1 : now < finishAt ? 2 : wrong ? 4 : 3;
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("token", token);
+            json.put("status", Map.of("id", status, "description", STATUSES.get(status)));
+            if (status > 2) {
+                json.put("stdout", wrong ? "wrong\n" : expectedOutput);
+                json.put("time", String.format("%.3f", (finishAt - startAt) / 1000.0));
+                json.put("memory", 16384);
+                json.put("exit_code", 0);
+            }
+            return json;
+        }
+
+        // Judge0 always base64 encodes the text fields of a callback
+        Map<String, Object> toCallbackJson() {
+            Map<String, Object> json = toJson();
+            if (!base64 && json.get("stdout") instanceof String stdout) {
+                json.put("stdout", Base64.getEncoder().encodeToString(stdout.getBytes(StandardCharsets.UTF_8)));
+            }
+            return json;
+        }
+    }
+
+    /**
+     * Stub behaviour. Distributions use the {@link Distribution#parse} syntax.
+     */
+    @Data
+    public static class Settings {
+        private int port = 2358;
+        // Delay before each HTTP response
+        private Distribution latency = Distribution.parse("lognormal:5,0.5");
+        // Delay between submission and reaching a worker, on top of waiting for a free worker
+        private Distribution queueDelay = Distribution.parse("fixed:0");
+        private Distribution executionTime = Distribution.parse("lognormal:200,0.4");
+        private int workers = 8;
+        private double errorRate = 0.0;
+        private double throttleRate = 0.0;
+        // POSTs are answered with 429 while this many submissions are unfinished; 0 disables
+        private int maxPending = 0;
+        private double wrongAnswerRate = 0.0;
+
+        /**
+         * Parses {@code --key=value} arguments, e.g. {@code --latency=uniform:5,20 --error-rate=0.01}.
+         * Unknown keys are ignored so the same argument list can be shared with other tools.
+         */
+        public static Settings fromArgs(String[] args) {
+            Settings settings = new Settings();
+            Map<String, String> values = LoadTestArgs.parse(args);
+            values.forEach((key, value) -> {
+                switch (key) {
+                    case "port" -> settings.setPort(Integer.parseInt(value));
+                    case "latency" -> settings.setLatency(Distribution.parse(value));
+                    case "queue-delay" -> settings.setQueueDelay(Distribution.parse(value));
+                    case "execution-time" -> settings.setExecutionTime(Distribution.parse(value));
+                    case "workers" -> settings.setWorkers(Integer.parseInt(value));
+                    case "error-rate" -> settings.setErrorRate(Double.parseDouble(value));
+                    case "throttle-rate" -> settings.setThrottleRate(Double.parseDouble(value));
+                    case "max-pending" -> settings.setMaxPending(Integer.parseInt(value));
+                    case "wrong-answer-rate" -> settings.setWrongAnswerRate(Double.parseDouble(value));
+                    default -> {
+                    }
+                }
+            });
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.codeexecution.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop load generator for {@code POST /api/code/execute/{problemId}}.
+ * Requests are started at a fixed rate regardless of how fast earlier ones
+ * complete, so a slow server shows up as latency and rejections instead of
+ * silently lowering the offered load.
+ */
+@Slf4j
+public class LoadGenerator {
+    private static final String SOURCE_CODE = """
+            import java.util.Scanner;
+
+            public class Main {
+                public static void main(String[] args) {
+                    Scanner in = new Scanner(System.in);
+                    System.out.println(in.hasNextLine() ? in.nextLine() : "");
+                }
+            }
+            """;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Report run() throws InterruptedException {
+        long intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRps()));
+        long totalRequests = (long) (settings.getRps() * settings.getDurationSeconds());
+        URI uri = URI.create(settings.getUrl() + "/api/code/execute/" + settings.getProblemId());
+
+        List<Long> latenciesNanos = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong sent = new AtomicLong();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong notPassed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch((int) totalRequests);
+
+        log.info("Offering {} requests/s to {} for {}s", settings.getRps(), uri, settings.getDurationSeconds());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> {
+            long n = sent.getAndIncrement();
+            if (n >= totalRequests) {
+                scheduler.shutdown();
+                return;
+            }
+            if (inFlight.get() >= settings.getMaxInFlight()) {
+                dropped.incrementAndGet();
+                done.countDown();
+                return;
+            }
+            inFlight.incrementAndGet();
+            long requestStart = System.nanoTime();
+            httpClient.sendAsync(request(uri, n), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, e) -> {
+                        long latency = System.nanoTime() - requestStart;
+                        inFlight.decrementAndGet();
+                        if (e != null) {
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else if (response.statusCode() / 100 != 2) {
+                            errors.incrementAndGet();
+                        } else {
+                            ok.incrementAndGet();
+                            latenciesNanos.add(latency);
+                            if (!response.body().contains("\"overallPassed\":true")) {
+                                notPassed.incrementAndGet();
+                            }
+                        }
+                        done.countDown();
+                    });
+        }, 0, intervalNanos, TimeUnit.NANOSECONDS);
+
+        if (!done.await(settings.getDurationSeconds() + settings.getTimeoutSeconds(), TimeUnit.SECONDS)) {
+            log.warn("{} requests still in flight at the end of the run", inFlight.get());
+        }
+        scheduler.shutdownNow();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted;
+        synchronized (latenciesNanos) {
+            sorted = new ArrayList<>(latenciesNanos);
+        }
+        Collections.sort(sorted);
+        return new Report(settings.getRps(), totalRequests, ok.get(), notPassed.get(), rejected.get(), errors.get(),
+                dropped.get(), ok.get() / elapsedSeconds,
+                percentileMs(sorted, 0.50), percentileMs(sorted, 0.95), percentileMs(sorted, 0.99),
+                percentileMs(sorted, 1.0));
+    }
+
+    private HttpRequest request(URI uri, long n) {
+        // A distinct comment per request keeps the verdict cache from answering
+        String source = settings.isUniqueSource() ? SOURCE_CODE + "// request " + n + "\n" : SOURCE_CODE;
+        try {
+            return HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(settings.getTimeoutSeconds()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(Map.of("source_code", source))))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentileMs(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Report report = new LoadGenerator(Settings.fromArgs(args)).run();
+        System.out.println(report.format());
+    }
+
+    public record Report(double targetRps, long requests, long ok, long notPassed, long rejected, long errors,
+                         long dropped, double throughput, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("targetRps", targetRps);
+            map.put("requests", requests);
+            map.put("ok", ok);
+            map.put("notPassed", notPassed);
+            map.put("rejected", rejected);
+            map.put("errors", errors);
+            map.put("dropped", dropped);
+            map.put("throughput", throughput);
+            map.put("p50Ms", p50Ms);
+            map.put("p95Ms", p95Ms);
+            map.put("p99Ms", p99Ms);
+            map.put("maxMs", maxMs);
+            return map;
+        }
+
+        public String format() {
+            return String.format("""
+                            target rps   %.1f
+                            requests     %d (ok %d, not passed %d, rejected %d, errors %d, dropped %d)
+                            throughput   %.1f req/s
+                            latency ms   p50 %.1f  p95 %.1f  p99 %.1f  max %.1f""",
+                    targetRps, requests, ok, notPassed, rejected, errors, dropped, throughput,
+                    p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+
+    @Data
+    public static class Settings {
+        private String url = "http://localhost:8082";
+        private String problemId = "migratory_birds";
+        private double rps = 10;
+        private int durationSeconds = 30;
+        private int timeoutSeconds = 60;
+        // Requests beyond this many outstanding are counted as dropped instead of sent
+        private int maxInFlight = 2000;
+        private boolean uniqueSource = true;
+
+        public static Settings fromArgs(String[] args) {
+            Settings settings = new Settings();
+            LoadTestArgs.parse(args).forEach((key, value) -> {
+                switch (key) {
+                    case "url" -> settings.setUrl(value);
+                    case "problem" -> settings.setProblemId(value);
+                    case "rps" -> settings.setRps(Double.parseDouble(value));
+                    case "duration" -> settings.setDurationSeconds(Integer.parseInt(value));
+                    case "timeout" -> settings.setTimeoutSeconds(Integer.parseInt(value));
+                    case "max-in-flight" -> settings.setMaxInFlight(Integer.parseInt(value));
+                    case "unique-source" -> settings.setUniqueSource(Boolean.parseBoolean(value));
+                    default -> {
+                    }
+                }
+            });
+            return settings;
+        }
+    }
+}
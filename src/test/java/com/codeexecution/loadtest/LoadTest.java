@@ -0,0 +1,99 @@
+package com.codeexecution.loadtest;
+
+import com.codeexecution.CodeExecutionApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test that needs no real Judge0: starts a
+ * {@link Judge0StubServer}, boots the application against it and drives it
+ * with a {@link LoadGenerator}.
+ * <p>
+ * {@code mvn -Ploadtest test-compile exec:java -Dexec.args="--rps=50 --duration=60 --workers=16
+ * --app.judge0.polling-interval-ms=250 --app.async.mode=virtual"}
+ * <p>
+ * Stub and generator options are passed as-is; {@code --app.<property>=<value>}
+ * overrides an application property. With {@code --url=...} an already running
+ * application is used instead and only the generator runs. The report is
+ * printed and written to target/loadtest-result.json.
+ */
+@Slf4j
+public class LoadTest {
+    private static final String APP_PREFIX = "app.";
+    private static final Path RESULT_FILE = Paths.get("target", "loadtest-result.json");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = LoadTestArgs.parse(args);
+        LoadGenerator.Settings generatorSettings = LoadGenerator.Settings.fromArgs(args);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("args", List.of(args));
+
+        if (values.containsKey("url")) {
+            LoadGenerator.Report report = new LoadGenerator(generatorSettings).run();
+            System.out.println(report.format());
+            result.put("report", report.toMap());
+        } else {
+            Judge0StubServer.Settings stubSettings = Judge0StubServer.Settings.fromArgs(args);
+            if (!values.containsKey("port")) {
+                stubSettings.setPort(0);
+            }
+            try (Judge0StubServer stub = new Judge0StubServer(stubSettings).start();
+                 ConfigurableApplicationContext app = startApplication(stub.baseUrl(), values)) {
+                generatorSettings.setUrl("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+                LoadGenerator.Report report = new LoadGenerator(generatorSettings).run();
+
+                System.out.println(report.format());
+                System.out.println("judge0 stub   " + stub.stats());
+                result.put("report", report.toMap());
+                result.put("judge0", stub.stats());
+            }
+        }
+        write(result);
+    }
+
+    private static ConfigurableApplicationContext startApplication(String judge0Url, Map<String, String> values)
+            throws IOException {
+        int port = freePort();
+        // Passed as command line arguments so they win over application.properties
+        List<String> properties = new ArrayList<>();
+        properties.add("--server.port=" + port);
+        properties.add("--judge0.base-url=" + judge0Url);
+        properties.add("--judge0.callback-url=http://localhost:" + port + "/api/judge0/callback");
+        // The stub runs nothing: it echoes expected_output as stdout, so it has to be sent
+        properties.add("--checker.local=false");
+        values.forEach((key, value) -> {
+            if (key.startsWith(APP_PREFIX)) {
+                properties.add("--" + key.substring(APP_PREFIX.length()) + "=" + value);
+            }
+        });
+        log.info("Starting application with {}", properties);
+        return new SpringApplicationBuilder(CodeExecutionApplication.class)
+                .run(properties.toArray(new String[0]));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void write(Map<String, Object> result) throws IOException {
+        Files.createDirectories(RESULT_FILE.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(RESULT_FILE.toFile(), result);
+        log.info("Wrote {}", RESULT_FILE.toAbsolutePath());
+    }
+}
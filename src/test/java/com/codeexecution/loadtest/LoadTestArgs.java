@@ -0,0 +1,29 @@
+package com.codeexecution.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class LoadTestArgs {
+
+    private LoadTestArgs() {
+    }
+
+    /**
+     * Parses {@code --key=value} arguments; a bare {@code --flag} maps to "true".
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchControllerTest {
+
+    private final Judge0Properties properties = new Judge0Properties();
+
+    private AdaptiveBatchController newController() {
+        properties.setPollingIntervalMs(0);
+        return new AdaptiveBatchController(properties,
+                new DefaultListableBeanFactory().getBeanProvider(
+                        CircuitBreakerRegistry.class),
+                new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void growsBatchSizeThenConcurrencyWhileHealthy() {
+        AdaptiveBatchController controller = newController();
+        assertThat(controller.plan()).isEqualTo(new AdaptiveBatchController.BatchPlan(5, 2));
+
+        for (int i = 0; i < 15; i++) {
+            controller.onSuccess(100);
+        }
+        assertThat(controller.plan().batchSize()).isEqualTo(20);
+        assertThat(controller.plan().concurrency()).isEqualTo(2);
+
+        // Each extra parallel batch takes about `concurrency` healthy calls
+        for (int i = 0; i < 6; i++) {
+            controller.onSuccess(100);
+        }
+        assertThat(controller.plan().concurrency()).isEqualTo(4);
+    }
+
+    @Test
+    void halvesOnThrottlingAndServerErrorsButNotClientErrors() {
+        AdaptiveBatchController controller = newController();
+
+        controller.onFailure(new Judge0Service.Judge0Exception("bad request", 400));
+        assertThat(controller.plan()).isEqualTo(new AdaptiveBatchController.BatchPlan(5, 2));
+
+        controller.onFailure(new Judge0Service.Judge0Exception("too many requests", 429));
+        assertThat(controller.plan()).isEqualTo(new AdaptiveBatchController.BatchPlan(2, 1));
+    }
+
+    @Test
+    void backsOffWhenLatencyExceedsTarget() {
+        AdaptiveBatchController controller = newController();
+
+        controller.onSuccess(properties.getBatchLatencyTargetMs() * 2L);
+        assertThat(controller.plan()).isEqualTo(new AdaptiveBatchController.BatchPlan(2, 1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompileOnceHarnessTest {
+
+    private final CompileOnceHarness harness = new CompileOnceHarness(new Judge0Properties());
+
+    private final List<TestCase> testCases = List.of(
+            new TestCase("1", "4"),
+            new TestCase("2", "3"),
+            new TestCase("3", "5"));
+
+    @Test
+    void splitsOutputIntoPerTestCaseResults() {
+        CompileOnceHarness.HarnessRun run = harness.createRun("class Main {}", testCases);
+        String d = run.delimiter();
+        String stdout = d + " BEGIN 0\n4\n\n" + d + " END 0 12 OK\n"
+                + d + " BEGIN 1\n7\n\n" + d + " END 1 10 OK\n"
+                + d + " BEGIN 2\n\n" + d + " END 2 3 RE java.lang.ArithmeticException\n";
+
+        List<SubmissionResult> results = harness.split(run, finishedRun(stdout, 3));
+
+        assertThat(results).extracting(r -> r.getStatus().getId()).containsExactly(3, 4, 11);
+        assertThat(results.get(0).getStdout()).isEqualTo("4\n");
+        assertThat(results.get(0).getTime()).isEqualTo(0.012);
+    }
+
+    @Test
+    void leavesUnstartedTestCasesEmptyAfterEarlyExit() {
+        CompileOnceHarness.HarnessRun run = harness.createRun("class Main {}", testCases);
+        String d = run.delimiter();
+        String stdout = d + " BEGIN 0\n4\n\n" + d + " END 0 -1 EXIT\n";
+
+        List<SubmissionResult> results = harness.split(run, finishedRun(stdout, 3));
+
+        assertThat(results.get(0).getStatus().getId()).isEqualTo(3);
+        assertThat(results.get(1)).isNull();
+        assertThat(results.get(2)).isNull();
+    }
+
+    @Test
+    void reportsRunStatusForTestCaseKilledBySandbox() {
+        CompileOnceHarness.HarnessRun run = harness.createRun("class Main {}", testCases);
+        String d = run.delimiter();
+        String stdout = d + " BEGIN 0\n4\n\n" + d + " END 0 5 OK\n" + d + " BEGIN 1\npartial";
+
+        List<SubmissionResult> results = harness.split(run, finishedRun(stdout, 5));
+
+        assertThat(results.get(1).getStatus().getId()).isEqualTo(5);
+        assertThat(results.get(1).getStdout()).isEqualTo("partial");
+        assertThat(results.get(2)).isNull();
+    }
+
+    @Test
+    void leavesTestCasesUnstartedFromAnEndMarkerCutOffByTheOutputLimit() {
+        CompileOnceHarness.HarnessRun run = harness.createRun("class Main {}", testCases);
+        String d = run.delimiter();
+        String stdout = d + " BEGIN 0\n4\n\n" + d + " END 0 12 OK\n" + d + " BEGIN 1\n3\n\n" + d + " END 1 1";
+
+        List<SubmissionResult> results = harness.split(run, finishedRun(stdout, 3));
+
+        assertThat(results.get(0).getStatus().getId()).isEqualTo(3);
+        assertThat(results.get(1)).isNull();
+        assertThat(results.get(2)).isNull();
+    }
+
+    private SubmissionResult finishedRun(String stdout, int statusId) {
+        return SubmissionResult.builder()
+                .token("run-token")
+                .stdout(stdout)
+                .exitCode(0)
+                .status(new SubmissionResult.Status(statusId, "status"))
+                .build();
+    }
+}
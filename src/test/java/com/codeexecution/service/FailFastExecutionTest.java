@@ -0,0 +1,88 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.SubmissionResult;
+import com.codeexecution.model.TestCase;
+import com.codeexecution.model.TestCaseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailFastExecutionTest {
+
+    private final List<TestCase> testCases = IntStream.range(0, 6)
+            .mapToObj(i -> new TestCase(String.valueOf(i), String.valueOf(i)))
+            .toList();
+    private final List<List<TestCase>> submitted = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<SubmissionResult>> polls = new CopyOnWriteArrayList<>();
+
+    private FailFastExecution execution(Function<TestCase, CompletableFuture<SubmissionResult>> poll) {
+        return new FailFastExecution("p", testCases,
+                batch -> {
+                    submitted.add(batch);
+                    List<CompletableFuture<SubmissionResult>> batchPolls = batch.stream().map(poll).toList();
+                    polls.addAll(batchPolls);
+                    return CompletableFuture.completedFuture(batchPolls);
+                },
+                (testCase, result) -> new TestCaseResult(testCase, result, result.getStatus().getId() == 3),
+                (testCase, e) -> new TestCaseResult(testCase, finished(13), false));
+    }
+
+    private static SubmissionResult finished(int statusId) {
+        return SubmissionResult.builder().status(new SubmissionResult.Status(statusId, null)).build();
+    }
+
+    @Test
+    void runsEveryBatchWhenAllPass() {
+        ExecutionResult result = execution(testCase -> CompletableFuture.completedFuture(finished(3))).run(2).join();
+
+        assertThat(submitted).hasSize(3);
+        assertThat(result.isOverallPassed()).isTrue();
+        assertThat(result.getPassedCount()).isEqualTo(6);
+        assertThat(result.getSkippedTestCases()).isEmpty();
+    }
+
+    @Test
+    void skipsBatchesAfterAFailure() {
+        ExecutionResult result = execution(testCase -> CompletableFuture.completedFuture(
+                finished(testCase.getInput().equals("1") ? 4 : 3))).run(2).join();
+
+        assertThat(submitted).hasSize(1);
+        assertThat(result.isOverallPassed()).isFalse();
+        assertThat(result.getPassedCount()).isEqualTo(1);
+        assertThat(result.getTotalCount()).isEqualTo(6);
+        assertThat(result.getTestCaseResults()).hasSize(2);
+        assertThat(result.getSkippedTestCases()).containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void cancelsOutstandingPollsOnAFailure() {
+        // Batches go out as soon as the previous one is accepted, so both are being polled
+        CompletableFuture<ExecutionResult> result = execution(testCase -> new CompletableFuture<>()).run(3);
+        assertThat(polls).hasSize(6);
+
+        polls.get(4).complete(finished(4));
+
+        assertThat(polls).filteredOn(CompletableFuture::isCancelled).hasSize(5);
+        assertThat(result).isDone();
+        assertThat(result.join().getTestCaseResults()).hasSize(1);
+        assertThat(result.join().getSkippedTestCases()).containsExactly(0, 1, 2, 3, 5);
+    }
+
+    @Test
+    void reportsFailedPollsAsFailuresRatherThanSkips() {
+        ExecutionResult result = execution(testCase -> testCase.getInput().equals("0")
+                ? CompletableFuture.failedFuture(new IllegalStateException("Judge0 unavailable"))
+                : CompletableFuture.completedFuture(finished(3))).run(6).join();
+
+        assertThat(result.getTestCaseResults()).hasSize(6);
+        assertThat(result.getTestCaseResults().get(0).getExecutionResult().getStatus().getId()).isEqualTo(13);
+        assertThat(result.getSkippedTestCases()).isEmpty();
+    }
+}
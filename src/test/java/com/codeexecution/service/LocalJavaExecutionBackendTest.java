@@ -0,0 +1,121 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.ExecutionBackendProperties;
+import com.codeexecution.model.ExecutionContext;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalJavaExecutionBackendTest {
+
+    private static LocalJavaExecutionBackend backend;
+
+    @BeforeAll
+    static void startBackend() throws Exception {
+        ExecutionBackendProperties properties = new ExecutionBackendProperties();
+        properties.setLocalProblems(Set.of("test"));
+        properties.getLocal().setPoolSize(1);
+        properties.getLocal().setCpuTimeLimit(1.0);
+        backend = new LocalJavaExecutionBackend(properties);
+        backend.init();
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.shutdown();
+    }
+
+    @Test
+    void judgesOutputAgainstExpectedOutput() {
+        String echo = """
+                import java.util.Scanner;
+                public class Main {
+                    static int calls;
+                    public static void main(String[] args) {
+                        calls++;
+                        System.out.println(new Scanner(System.in).nextInt() * 2 + calls - 1);
+                    }
+                }
+                """;
+
+        List<SubmissionResult> results = run(
+                request(echo, "2", "4"),
+                request(echo, "3", "7"));
+
+        // Static state does not carry over between runs
+        assertThat(results.get(0).getStatus().getId()).isEqualTo(3);
+        assertThat(results.get(1).getStatus().getId()).isEqualTo(4);
+        assertThat(results.get(1).getStdout()).isEqualTo("6\n");
+    }
+
+    @Test
+    void reportsCompilationRuntimeAndTimeLimitErrors() {
+        List<SubmissionResult> results = run(
+                request("public class Main { int x = }", "", ""),
+                request("public class Main { public static void main(String[] a) { throw new IllegalStateException(); } }", "", ""),
+                request("public class Main { public static void main(String[] a) { while (true) { } } }", "", ""),
+                request("public class Main { public static void main(String[] a) { System.out.println(1); System.exit(0); } }", "", "1"),
+                request("public class Main { public static void main(String[] a) { System.exit(3); } }", "", ""));
+
+        assertThat(results.get(0).getStatus().getId()).isEqualTo(6);
+        assertThat(results.get(0).getCompileOutput()).contains("Main.java:1: error");
+        assertThat(results.get(1).getStatus().getId()).isEqualTo(11);
+        assertThat(results.get(1).getStderr()).contains("IllegalStateException");
+        assertThat(results.get(2).getStatus().getId()).isEqualTo(5);
+        assertThat(results.get(3).getStatus().getId()).isEqualTo(3);
+        assertThat(results.get(4).getStatus().getId()).isEqualTo(11);
+        assertThat(results.get(4).getExitCode()).isEqualTo(3);
+    }
+
+    @Test
+    void countsCpuTimeOfThreadsTheProgramStarts() {
+        String spinInThreads = """
+                public class Main {
+                    public static void main(String[] args) {
+                        for (int i = 0; i < 2; i++) {
+                            new Thread(() -> { while (true) { } }).start();
+                        }
+                    }
+                }
+                """;
+        String printLater = """
+                public class Main {
+                    public static void main(String[] args) {
+                        new Thread(() -> System.out.println(42)).start();
+                    }
+                }
+                """;
+
+        List<SubmissionResult> results = run(
+                request(spinInThreads, "", ""),
+                request(printLater, "", "42"));
+
+        // Stopped by the CPU limit rather than the parent's wall-clock kill
+        assertThat(results.get(0).getStatus().getId()).isEqualTo(5);
+        assertThat(results.get(0).getTime()).isGreaterThanOrEqualTo(1.0);
+        assertThat(results.get(0).getWallTime()).isLessThan(3.0);
+        assertThat(results.get(1).getStatus().getId()).isEqualTo(3);
+    }
+
+    private List<SubmissionResult> run(SubmissionRequest... requests) {
+        return backend.execute(List.of(requests), ExecutionContext.DEFAULT).join().stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private SubmissionRequest request(String source, String stdin, String expectedOutput) {
+        return SubmissionRequest.builder()
+                .sourceCode(source)
+                .stdin(stdin)
+                .expectedOutput(expectedOutput)
+                .build();
+    }
+}
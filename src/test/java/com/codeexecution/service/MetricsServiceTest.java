@@ -0,0 +1,32 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.ProblemMetricsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsServiceTest {
+
+    @Test
+    void problemTagsAreBoundedByConfiguredAndFirstSeenProblems() {
+        ProblemMetricsProperties properties = new ProblemMetricsProperties();
+        properties.setTagged(Set.of("hot"));
+        properties.setMaxTagged(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricsService metrics = new MetricsService(registry, properties);
+
+        for (int i = 0; i < 100; i++) {
+            metrics.recordExecutionTime("problem-" + i, 10, true);
+        }
+        metrics.recordExecutionTime("hot", 10, true);
+
+        assertThat(registry.find("code_execution_time_seconds").timers())
+                .extracting(timer -> timer.getId().getTag("problem_id"))
+                .containsExactlyInAnyOrder("problem-0", "problem-1", "other", "hot");
+        assertThat(registry.get("code_execution_time_seconds").tag("problem_id", "other").timer().count())
+                .isEqualTo(98);
+    }
+}
@@ -0,0 +1,96 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.CheckerProperties;
+import com.codeexecution.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutputCheckersTest {
+
+    private static boolean check(OutputChecker checker, String output, String expected) throws IOException {
+        return checker.check(null, new StringReader(output), new StringReader(expected));
+    }
+
+    @Test
+    void exactIgnoresOnlySurroundingWhitespace() throws IOException {
+        OutputChecker exact = OutputCheckers.exact();
+        assertThat(check(exact, "1 2\n3\n", "1 2\n3")).isTrue();
+        assertThat(check(exact, "\n 1 2\n3 \n\n", "1 2\n3\n")).isTrue();
+        assertThat(check(exact, "1  2\n3", "1 2\n3")).isFalse();
+        assertThat(check(exact, "1 2 3", "1 2\n3")).isFalse();
+        assertThat(check(exact, "1 2", "1 2\n3")).isFalse();
+        assertThat(check(exact, "", "  ")).isTrue();
+    }
+
+    @Test
+    void tokensIgnoreHowWhitespaceIsLaidOut() throws IOException {
+        OutputChecker tokens = OutputCheckers.tokens();
+        assertThat(check(tokens, "1  2 \r\n3\n", "1 2\n3")).isTrue();
+        assertThat(check(tokens, "1 2 3", "1 2\n3")).isTrue();
+        assertThat(check(tokens, "1 2", "1 2 3")).isFalse();
+        assertThat(check(tokens, "1 23", "1 2 3")).isFalse();
+        assertThat(check(tokens, "1.0", "1")).isFalse();
+    }
+
+    @Test
+    void floatsCompareNumbersWithinEpsilon() throws IOException {
+        OutputChecker floats = OutputCheckers.floats(1e-6);
+        assertThat(check(floats, "0.3333333 YES", "0.33333333333 YES")).isTrue();
+        assertThat(check(floats, "1.00 2", "1 2.0")).isTrue();
+        assertThat(check(floats, "1000000.5", "1000000.0")).isTrue();  // Relative error 5e-7
+        assertThat(check(floats, "0.334", "0.333")).isFalse();
+        assertThat(check(floats, "YES", "NO")).isFalse();
+        assertThat(check(floats, "1.0f", "1.0")).isFalse();
+        assertThat(check(floats, "NaN", "1")).isFalse();
+    }
+
+    @Test
+    void comparesLargeOutputsAcrossBufferBoundaries() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            expected.append(i).append(i % 10 == 9 ? '\n' : ' ');
+        }
+        String output = expected.toString().replace('\n', ' ');
+        assertThat(check(OutputCheckers.tokens(), output, expected.toString())).isTrue();
+        assertThat(check(OutputCheckers.floats(1e-9), output, expected.toString())).isTrue();
+        assertThat(check(OutputCheckers.exact(), output, expected.toString())).isFalse();
+        assertThat(check(OutputCheckers.tokens(), output + "1", expected.toString())).isFalse();
+    }
+
+    @Test
+    void comparatorReadsMappedTestCasesAndAppliesPerProblemModes() {
+        CheckerProperties properties = new CheckerProperties();
+        CheckerProperties.Problem floatProblem = new CheckerProperties.Problem();
+        floatProblem.setMode(CheckerProperties.Mode.FLOAT);
+        floatProblem.setEpsilon(1e-2);
+        properties.getProblems().put("geometry", floatProblem);
+        OutputComparator comparator = new OutputComparator(properties);
+
+        TestCase testCase = TestCase.ofSlices(ByteBuffer.wrap("1 2".getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap("3.14159\ncafé\n".getBytes(StandardCharsets.UTF_8)));
+        assertThat(comparator.matches("geometry", testCase, "3.141 café")).isTrue();
+        assertThat(comparator.matches("other", testCase, "3.141 café")).isFalse();
+        assertThat(comparator.matches("other", testCase, "3.14159 café")).isTrue();
+        assertThat(comparator.matches("other", new TestCase("1 2", null), "anything")).isTrue();
+    }
+
+    @Test
+    void customCheckersMustImplementOutputChecker() {
+        CheckerProperties properties = new CheckerProperties();
+        CheckerProperties.Problem custom = new CheckerProperties.Problem();
+        custom.setMode(CheckerProperties.Mode.CUSTOM);
+        custom.setCheckerClass(String.class.getName());
+        properties.getProblems().put("p", custom);
+
+        assertThatThrownBy(() -> new OutputComparator(properties).validate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not implement");
+    }
+}
@@ -0,0 +1,50 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollDelayEstimatorTest {
+
+    private final Judge0Properties properties = new Judge0Properties();
+    private final PollDelayEstimator estimator = new PollDelayEstimator(properties);
+
+    @Test
+    void firstPollWaitsForTheProblemsMedianTurnaround() {
+        assertThat(estimator.firstDelayMs("p")).isEqualTo(properties.getPollingIntervalMs());
+
+        estimator.record("p", 300, 50);
+        estimator.record("p", 900, 50);
+        estimator.record("p", 400, 50);
+        assertThat(estimator.firstDelayMs("p")).isEqualTo(400);
+        assertThat(estimator.firstDelayMs("other")).isEqualTo(properties.getPollingIntervalMs());
+
+        estimator.record("slow", 60000, 50);
+        assertThat(estimator.firstDelayMs("slow")).isEqualTo(properties.getMaxPollDelayMs());
+    }
+
+    @Test
+    void stepsStartAtTheMedianRunTimeAndGrowOnlyWhileQueued() {
+        assertThat(estimator.nextDelayMs("p", 0, true)).isEqualTo(properties.getPollingIntervalMs());
+
+        estimator.record("p", 1000, 200);
+        assertThat(estimator.nextDelayMs("p", 0, true)).isEqualTo(200);
+        assertThat(estimator.nextDelayMs("p", 200, true)).isEqualTo(300);
+        assertThat(estimator.nextDelayMs("p", 1000, false)).isEqualTo(200);
+        assertThat(estimator.nextDelayMs("p", 4000, true)).isEqualTo(properties.getMaxPollDelayMs());
+
+        estimator.record("fast", 50, 5);
+        assertThat(estimator.nextDelayMs("fast", 0, false)).isEqualTo(properties.getMinPollDelayMs());
+    }
+
+    @Test
+    void jitterStaysWithinTheConfiguredFraction() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(estimator.jitter(1000)).isBetween(800L, 1200L);
+        }
+        properties.setAdaptivePolling(false);
+        assertThat(estimator.jitter(1000)).isEqualTo(1000);
+        assertThat(estimator.nextDelayMs("p", 1000, true)).isEqualTo(properties.getPollingIntervalMs());
+    }
+}
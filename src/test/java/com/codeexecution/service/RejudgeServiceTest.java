@@ -0,0 +1,204 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.RejudgeProperties;
+import com.codeexecution.exception.RejudgeJobNotFoundException;
+import com.codeexecution.model.ExecutionResult;
+import com.codeexecution.model.RejudgeProgress;
+import com.codeexecution.model.RejudgeRequest;
+import com.codeexecution.model.RejudgeVerdict;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RejudgeServiceTest {
+
+    @TempDir
+    Path checkpointDir;
+
+    private final RejudgeProperties properties = new RejudgeProperties();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RejudgeCheckpoints checkpoints;
+
+    // One executeAll call: its sources, when it is accepted and one verdict per source
+    private record Window(List<String> sources, CompletableFuture<List<CompletableFuture<ExecutionResult>>> accepted,
+                          List<CompletableFuture<ExecutionResult>> verdicts) {
+
+        void accept() {
+            accepted.complete(verdicts);
+        }
+
+        void judge(int index, boolean passed) {
+            verdicts.get(index).complete(new ExecutionResult(passed, passed ? 1 : 0, 1, List.of()));
+        }
+
+        void fail(int index, String message) {
+            verdicts.get(index).completeExceptionally(new Judge0Service.Judge0Exception(message));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties.setCheckpointDir(checkpointDir.toString());
+        checkpoints = new RejudgeCheckpoints(properties, objectMapper);
+    }
+
+    private RejudgeService service(List<Window> windows) {
+        CodeExecutionService executionService = mock(CodeExecutionService.class);
+        when(executionService.executeAll(eq("p"), anyList(), any())).thenAnswer(invocation -> {
+            List<String> sources = List.copyOf(invocation.getArgument(1));
+            Window window = new Window(sources, new CompletableFuture<>(),
+                    sources.stream().map(source -> new CompletableFuture<ExecutionResult>()).toList());
+            windows.add(window);
+            return window.accepted();
+        });
+        return new RejudgeService(properties, executionService, checkpoints,
+                new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    private static RejudgeRequest request(int submissions) {
+        return new RejudgeRequest("p", IntStream.range(0, submissions)
+                .mapToObj(i -> new RejudgeRequest.Submission("s" + i, "source" + i))
+                .toList());
+    }
+
+    @Test
+    void sendsTheNextWindowOnceThePreviousIsAcceptedUpToTheOpenLimit() {
+        properties.setWindowSubmissions(2);
+        properties.setMaxOpenSubmissions(4);
+        List<Window> windows = new CopyOnWriteArrayList<>();
+        RejudgeService service = service(windows);
+
+        String jobId = service.start("t", request(6)).jobId();
+        assertThat(windows).hasSize(1);
+
+        windows.get(0).accept();
+        assertThat(windows).extracting(Window::sources)
+                .containsExactly(List.of("source0", "source1"), List.of("source2", "source3"));
+
+        // Four submissions are open, so the third window waits for two verdicts
+        windows.get(1).accept();
+        windows.get(0).judge(0, true);
+        assertThat(windows).hasSize(2);
+        windows.get(0).judge(1, false);
+        assertThat(windows).hasSize(3);
+        assertThat(windows.get(2).sources()).containsExactly("source4", "source5");
+
+        windows.get(2).accept();
+        windows.get(1).judge(0, true);
+        windows.get(1).judge(1, true);
+        windows.get(2).judge(0, true);
+        windows.get(2).judge(1, true);
+
+        RejudgeProgress progress = service.getProgress(jobId);
+        assertThat(progress.state()).isEqualTo(RejudgeProgress.State.COMPLETED);
+        assertThat(progress.passed()).isEqualTo(5);
+        assertThat(windows).hasSize(3);
+        assertThat(checkpoints.load()).isEmpty();
+
+        properties.setFinishedRetentionMs(0);
+        assertThat(service.getJobs()).isEmpty();
+        assertThatThrownBy(() -> service.getProgress(jobId)).isInstanceOf(RejudgeJobNotFoundException.class);
+    }
+
+    @Test
+    void resumesAFailedJobWithTheSubmissionsItHasNoVerdictFor() {
+        properties.setWindowSubmissions(2);
+        properties.setMaxOpenSubmissions(2);
+        List<Window> windows = new CopyOnWriteArrayList<>();
+        RejudgeService service = service(windows);
+
+        String jobId = service.start("t", request(4)).jobId();
+        windows.get(0).accept();
+        windows.get(0).judge(0, true);
+        windows.get(0).judge(1, true);
+        windows.get(1).accepted().completeExceptionally(new IllegalStateException("Judge0 unavailable"));
+
+        RejudgeProgress failed = service.getProgress(jobId);
+        assertThat(failed.state()).isEqualTo(RejudgeProgress.State.FAILED);
+        assertThat(failed.error()).isEqualTo("Judge0 unavailable");
+        assertThat(failed.completed()).isEqualTo(2);
+        // Failed jobs are not evicted, they can still be resumed
+        properties.setFinishedRetentionMs(0);
+        assertThat(service.getJobs()).hasSize(1);
+
+        service.resume(jobId);
+        assertThat(windows).hasSize(3);
+        assertThat(windows.get(2).sources()).containsExactly("source2", "source3");
+        assertThatThrownBy(() -> service.resume(jobId)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void stopsAtASubmissionThatCouldNotBeJudgedAndJudgesItOnResume() {
+        properties.setWindowSubmissions(3);
+        List<Window> windows = new CopyOnWriteArrayList<>();
+        RejudgeService service = service(windows);
+
+        String jobId = service.start("t", request(3)).jobId();
+        windows.get(0).accept();
+        windows.get(0).judge(0, true);
+        windows.get(0).fail(1, "Max polling attempts (30) exceeded for token: x");
+        windows.get(0).judge(2, false);
+
+        RejudgeProgress failed = service.getProgress(jobId);
+        assertThat(failed.state()).isEqualTo(RejudgeProgress.State.FAILED);
+        assertThat(failed.error()).startsWith("Max polling attempts");
+        assertThat(failed.completed()).isEqualTo(2);
+        assertThat(service.getVerdicts(jobId)).extracting(RejudgeVerdict::submissionId).containsExactly("s0", "s2");
+        assertThat(checkpoints.load()).hasSize(1);
+
+        service.resume(jobId);
+        assertThat(windows.get(1).sources()).containsExactly("source1");
+        windows.get(1).accept();
+        windows.get(1).judge(0, true);
+        assertThat(service.getProgress(jobId).state()).isEqualTo(RejudgeProgress.State.COMPLETED);
+    }
+
+    @Test
+    void resumesCheckpointedJobsAfterARestart() throws IOException {
+        properties.setWindowSubmissions(3);
+        List<Window> windows = new CopyOnWriteArrayList<>();
+        String jobId = service(windows).start("t", request(3)).jobId();
+        windows.get(0).accept();
+        windows.get(0).judge(0, false);
+        // A crash while writing the next verdict
+        Files.writeString(checkpointDir.resolve(jobId + ".verdicts"), "{\"submission_id\":\"s1\",\"pas",
+                StandardOpenOption.APPEND);
+
+        List<Window> resumedWindows = new CopyOnWriteArrayList<>();
+        RejudgeService restarted = service(resumedWindows);
+        restarted.resumeJobs();
+
+        assertThat(resumedWindows).hasSize(1);
+        assertThat(resumedWindows.get(0).sources()).containsExactly("source1", "source2");
+        resumedWindows.get(0).accept();
+        resumedWindows.get(0).judge(0, true);
+
+        assertThat(checkpoints.load()).singleElement()
+                .extracting(RejudgeCheckpoints.Checkpoint::verdicts)
+                .isEqualTo(List.of(new RejudgeVerdict("s0", false, 0, 1), new RejudgeVerdict("s1", true, 1, 1)));
+
+        resumedWindows.get(0).judge(1, true);
+        assertThat(restarted.getProgress(jobId).state()).isEqualTo(RejudgeProgress.State.COMPLETED);
+        assertThat(restarted.getProgress(jobId).completed()).isEqualTo(3);
+        assertThat(checkpoints.load()).isEmpty();
+    }
+}
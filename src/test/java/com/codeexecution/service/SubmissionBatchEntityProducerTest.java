@@ -0,0 +1,108 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.Judge0Properties;
+import com.codeexecution.model.Base64Text;
+import com.codeexecution.model.SubmissionRequest;
+import com.codeexecution.model.SubmissionResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.core5.http.nio.StreamChannel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionBatchEntityProducerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Judge0Properties properties = new Judge0Properties();
+    private final Judge0Service judge0Service = new Judge0Service(null, properties, objectMapper, null);
+
+    private final List<SubmissionRequest> requests = IntStream.range(0, 5)
+            .mapToObj(i -> SubmissionRequest.builder()
+                    .sourceCode("class Main {}")
+                    .stdin("é".repeat(5000) + i)
+                    .build())
+            .toList();
+
+    @Test
+    void streamsTheSameBodyInSmallWrites() throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        judge0Service.writeBatch(requests, expected);
+
+        assertThat(produce(false)).isEqualTo(expected.toByteArray());
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(produce(true))).readAllBytes())
+                .isEqualTo(expected.toByteArray());
+
+        JsonNode submissions = objectMapper.readTree(expected.toByteArray()).get("submissions");
+        assertThat(submissions).hasSize(5);
+        assertThat(submissions.get(4).get("stdin").asText()).endsWith("é4");
+        assertThat(submissions.get(4).has("expected_output")).isFalse();
+    }
+
+    @Test
+    void base64EncodesRequestTextAndDecodesResults() throws IOException {
+        properties.setBase64Encoded(true);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        judge0Service.writeBatch(requests.subList(0, 1), body);
+
+        JsonNode submission = objectMapper.readTree(body.toByteArray()).get("submissions").get(0);
+        assertThat(new String(Base64.getDecoder().decode(submission.get("source_code").asText()), StandardCharsets.UTF_8))
+                .isEqualTo("class Main {}");
+        assertThat(submission.get("language_id").asInt()).isEqualTo(62);
+
+        // Judge0 breaks encoded text every 60 characters
+        String stdout = "x".repeat(100) + " é\n";
+        String encoded = Base64.getMimeEncoder(60, "\n".getBytes()).encodeToString(stdout.getBytes(StandardCharsets.UTF_8));
+        String callback = objectMapper.writeValueAsString(java.util.Map.of(
+                "token", "t", "stdout", encoded + "\n", "status", java.util.Map.of("id", 3)));
+        SubmissionResult result = objectMapper.readerFor(SubmissionResult.class)
+                .withAttribute(Base64Text.ATTRIBUTE, true)
+                .readValue(callback.getBytes(StandardCharsets.UTF_8));
+        assertThat(result.getStdout()).isEqualTo(stdout);
+
+        // Without the attribute the same models stay plain text
+        SubmissionResult plain = objectMapper.readValue(callback, SubmissionResult.class);
+        assertThat(plain.getStdout()).isEqualTo(encoded + "\n");
+        assertThat(objectMapper.writer().withAttribute(Base64Text.ATTRIBUTE, false)
+                .writeValueAsString(requests.get(0))).contains("\"source_code\":\"class Main {}\"");
+    }
+
+    // Drains the producer through a channel that takes at most 1000 bytes per write
+    private byte[] produce(boolean gzip) throws IOException {
+        SubmissionBatchEntityProducer producer = new SubmissionBatchEntityProducer(
+                objectMapper.writerFor(SubmissionRequest.class), requests, gzip);
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        boolean[] ended = new boolean[1];
+        StreamChannel<ByteBuffer> channel = new StreamChannel<>() {
+            @Override
+            public int write(ByteBuffer src) {
+                int count = Math.min(1000, src.remaining());
+                byte[] bytes = new byte[count];
+                src.get(bytes);
+                sent.write(bytes, 0, count);
+                return count;
+            }
+
+            @Override
+            public void endStream() {
+                ended[0] = true;
+            }
+        };
+        for (int calls = 0; !ended[0]; calls++) {
+            assertThat(calls).isLessThan(10_000);
+            producer.produceData(channel);
+        }
+        assertThat(producer.getContentEncoding()).isEqualTo(gzip ? "gzip" : null);
+        return sent.toByteArray();
+    }
+}
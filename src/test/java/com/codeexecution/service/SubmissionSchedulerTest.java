@@ -0,0 +1,109 @@
+package com.codeexecution.service;
+
+import com.codeexecution.config.SchedulerProperties;
+import com.codeexecution.exception.DeadlineExceededException;
+import com.codeexecution.model.ExecutionContext;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubmissionSchedulerTest {
+
+    private static final ExecutionContext HEAVY = new ExecutionContext("heavy", ExecutionContext.Priority.SUBMIT);
+    private static final ExecutionContext LIGHT = new ExecutionContext("light", ExecutionContext.Priority.SUBMIT);
+    private static final ExecutionContext RUN = new ExecutionContext("light", ExecutionContext.Priority.INTERACTIVE);
+    private static final ExecutionContext REJUDGE = new ExecutionContext("admin", ExecutionContext.Priority.REJUDGE);
+
+    private final SchedulerProperties properties = new SchedulerProperties();
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<Void>> running = new CopyOnWriteArrayList<>();
+
+    private SubmissionScheduler newScheduler(int maxInFlightBatches) {
+        properties.setMaxInFlightBatches(maxInFlightBatches);
+        return new SubmissionScheduler(properties,
+                new DefaultListableBeanFactory().getBeanProvider(RateLimiterRegistry.class),
+                new MetricsService(new SimpleMeterRegistry()), Runnable::run);
+    }
+
+    private void schedule(SubmissionScheduler scheduler, ExecutionContext context, String name) {
+        scheduler.schedule(context, 20, () -> {
+            started.add(name);
+            CompletableFuture<Void> submission = new CompletableFuture<>();
+            running.add(submission);
+            return submission;
+        });
+    }
+
+    // Completes the oldest running submission, which lets the next one start
+    private void finishOne() {
+        running.remove(0).complete(null);
+    }
+
+    @Test
+    void newcomersAndInteractiveRunsDoNotWaitBehindABacklog() {
+        SubmissionScheduler scheduler = newScheduler(1);
+        for (int i = 0; i < 5; i++) {
+            schedule(scheduler, HEAVY, "heavy-" + i);
+        }
+        schedule(scheduler, LIGHT, "light");
+        schedule(scheduler, RUN, "run");
+
+        for (int i = 0; i < 6; i++) {
+            finishOne();
+        }
+        assertThat(started).containsExactly("heavy-0", "run", "light", "heavy-1", "heavy-2", "heavy-3", "heavy-4");
+        assertThat(scheduler.queueDepth(ExecutionContext.Priority.SUBMIT)).isZero();
+    }
+
+    @Test
+    void rejudgesAreHeldToTheirShareOfSlots() {
+        SubmissionScheduler scheduler = newScheduler(4);
+        for (int i = 0; i < 4; i++) {
+            schedule(scheduler, REJUDGE, "rejudge-" + i);
+        }
+        assertThat(scheduler.inFlight(ExecutionContext.Priority.REJUDGE)).isEqualTo(2);
+
+        schedule(scheduler, RUN, "run");
+        assertThat(started).containsExactly("rejudge-0", "rejudge-1", "run");
+    }
+
+    @Test
+    void batchesStillQueuedAtTheirDeadlineAreDropped() {
+        SubmissionScheduler scheduler = newScheduler(1);
+        schedule(scheduler, HEAVY, "heavy");
+        ExecutionContext hurried = new ExecutionContext("light", ExecutionContext.Priority.SUBMIT,
+                Instant.now().plusMillis(50));
+        CompletableFuture<Object> result = scheduler.schedule(hurried, 1, () -> {
+            started.add("hurried");
+            return new CompletableFuture<>();
+        });
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(scheduler.queueDepth(ExecutionContext.Priority.SUBMIT)).isZero();
+        finishOne();
+        assertThat(started).containsExactly("heavy");
+    }
+
+    @Test
+    void clientsCannotPickRejudgeOrRankAboveTheConfiguredPriority() {
+        assertThat(properties.clientPriority(null)).isEqualTo(ExecutionContext.Priority.SUBMIT);
+        assertThat(properties.clientPriority(ExecutionContext.Priority.INTERACTIVE))
+                .isEqualTo(ExecutionContext.Priority.SUBMIT);
+        assertThatThrownBy(() -> properties.clientPriority(ExecutionContext.Priority.REJUDGE))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        properties.setMaxClientPriority(ExecutionContext.Priority.INTERACTIVE);
+        assertThat(properties.clientPriority(ExecutionContext.Priority.INTERACTIVE))
+                .isEqualTo(ExecutionContext.Priority.INTERACTIVE);
+    }
+}
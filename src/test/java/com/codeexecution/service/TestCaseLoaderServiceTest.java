@@ -0,0 +1,56 @@
+package com.codeexecution.service;
+
+import com.codeexecution.model.TestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestCaseLoaderServiceTest {
+
+    // Packs synchronously so the test can see the result
+    private final TestCaseLoaderService loader = new TestCaseLoaderService(Runnable::run);
+
+    @TempDir
+    Path problemDir;
+
+    @Test
+    void packsTestCasesAfterFirstLoadAndRebuildsWhenFilesChange() throws IOException {
+        write("input/input00.txt", "1 2\n");
+        write("output/output00.txt", "3\n");
+        write("input/input01.txt", "héllo\n");
+        write("output/output01.txt", "wörld\n");
+        write("input/input02.txt", "no output\n");
+
+        List<TestCase> fromFiles = loader.loadTestCases("p", problemDir);
+        assertThat(problemDir.resolve(TestCasePack.FILE_NAME)).exists();
+        List<TestCase> fromPack = loader.loadTestCases("p", problemDir);
+
+        // input02 has no output file and is left out
+        List<TestCase> expected = List.of(new TestCase("1 2\n", "3\n"), new TestCase("héllo\n", "wörld\n"));
+        assertThat(fromFiles).containsExactlyElementsOf(expected);
+        assertThat(fromPack).containsExactlyElementsOf(expected);
+        assertThat(fromPack.get(1).getInput()).isEqualTo("héllo\n");
+        assertThat(fromPack.get(1).inputSize()).isEqualTo(7);
+        assertThat(fromFiles.get(1).inputSize()).isEqualTo(7);
+
+        Path output = write("output/output00.txt", "4\n");
+        Files.setLastModifiedTime(output, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        // Served from the files first, then from the rebuilt pack
+        assertThat(loader.loadTestCases("p", problemDir).get(0).getExpectedOutput()).isEqualTo("4\n");
+        assertThat(loader.loadTestCases("p", problemDir).get(0).getExpectedOutput()).isEqualTo("4\n");
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = problemDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+}
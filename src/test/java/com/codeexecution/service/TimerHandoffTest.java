@@ -0,0 +1,42 @@
+package com.codeexecution.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerHandoffTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void stopTimer() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void handsOffAgainWhileTheExecutorIsFull() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        // Full for the first two handoffs, like a platform executor with its queue at capacity
+        Executor executor = task -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new RejectedExecutionException("Queue full");
+            }
+            task.run();
+        };
+        CountDownLatch ran = new CountDownLatch(1);
+
+        TimerHandoff.schedule(timer, executor, ran::countDown, 10);
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts).hasValue(3);
+    }
+}